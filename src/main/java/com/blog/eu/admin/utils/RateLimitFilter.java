@@ -0,0 +1,193 @@
+package com.blog.eu.admin.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.blog.eu.model.TokenClaims;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro de limitação de taxa (rate limit) por cliente, com token buckets.
+ *
+ * Cada regra associa um método HTTP e um padrão de rota a uma capacidade por
+ * período. O cliente é o usuário autenticado (id do token JWT) ou, para
+ * requisições anônimas, o IP de origem; cada par regra/cliente tem seu próprio
+ * {@link TokenBucket}. Quando o bucket está vazio a resposta é 429, com o
+ * cabeçalho Retry-After em segundos.
+ *
+ * O filtro roda na cadeia do Spring Security logo depois do
+ * {@link com.blog.eu.model.JwtAuthenticationFilter}, para enxergar o usuário.
+ * Cada regra tem seu {@link ConcurrentHashMap} de buckets, com o cliente como
+ * chave (o id do usuário, um Long, ou o IP, uma String): a leitura não usa
+ * lock e as escritas só disputam o mesmo bin do mapa, então não é preciso
+ * um mapa particionado à parte; e nenhuma chave é montada por requisição.
+ * Os buckets que ficaram ociosos por um período inteiro (ou seja, já estariam
+ * cheios) são removidos periodicamente. Requisições sem regra correspondente
+ * passam direto.
+ *
+ * Configuração:
+ * - app.rate-limit.rules: regras no formato METODO:padrao=capacidade/segundos,
+ *   separadas por vírgula (ex.: POST:/api/auth/login=10/60)
+ * - app.rate-limit.enabled: liga/desliga o filtro (padrão true)
+ *
+ * @author Luis
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Regra de limite: método, padrão da rota, capacidade, período e buckets por cliente */
+    private record Rule(String method, PathPattern pattern, int capacity, long periodMs,
+                        Map<Object, TokenBucket> buckets) {}
+
+    private final List<Rule> rules;
+    private final boolean enabled;
+    private final LongAdder rejected = new LongAdder();
+
+    /** Origem dos instantes dos buckets (cabe nos 40 bits do estado) */
+    private final long origin = System.currentTimeMillis();
+
+    public RateLimitFilter(
+            @Value("${app.rate-limit.rules:POST:/api/auth/login=10/60,POST:/api/auth/register=5/60,"
+                    + "POST:/api/peditos/add=5/60,POST:/api/blog/*/comment=30/60,"
+                    + "POST:/api/blog/comment/*/reply=30/60}") String rules,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled) {
+        this.rules = parse(rules);
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule != null) {
+            long now = System.currentTimeMillis() - origin;
+            Object client = client(request);
+            TokenBucket bucket = rule.buckets().get(client);
+            if (bucket == null) {
+                bucket = rule.buckets().computeIfAbsent(client,
+                        k -> new TokenBucket(rule.capacity(), rule.periodMs(), now));
+            }
+            long waitMs = bucket.tryAcquire(now);
+            if (waitMs > 0) {
+                reject(response, waitMs);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /** Remove os buckets ociosos (equivalentes a um bucket novo e cheio). */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis() - origin;
+        for (Rule rule : rules) {
+            rule.buckets().values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    /** @return quantidade de buckets ativos */
+    public int getBucketCount() {
+        int count = 0;
+        for (Rule rule : rules) {
+            count += rule.buckets().size();
+        }
+        return count;
+    }
+
+    /** @return quantidade de requisições recusadas com 429 */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String method = request.getMethod();
+        PathContainer path = null;
+        for (Rule rule : rules) {
+            if (!rule.method().equals(method)) {
+                continue;
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            }
+            if (rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /** @return id do usuário autenticado (Long) ou IP de origem (String) */
+    private static Object client(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getDetails() instanceof TokenClaims claims) {
+            return claims.userId();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitMs) throws IOException {
+        rejected.increment();
+        int status = HttpStatus.TOO_MANY_REQUESTS.value();
+        response.setStatus(status);
+        response.setHeader("Retry-After", String.valueOf((waitMs + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"Error\":\"" + HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase()
+                + "\",\"Message\":\"Muitas requisições, tente novamente mais tarde\",\"Status\":" + status + "}");
+    }
+
+    /** Lê as regras no formato METODO:padrao=capacidade/segundos, separadas por vírgula. */
+    private static List<Rule> parse(String value) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String raw : value.split(",")) {
+            String spec = raw.strip();
+            if (spec.isEmpty()) {
+                continue;
+            }
+            int colon = spec.indexOf(':');
+            int eq = spec.lastIndexOf('=');
+            int slash = spec.lastIndexOf('/');
+            if (colon < 0 || eq < colon || slash < eq) {
+                throw new IllegalArgumentException("Regra de rate limit inválida: " + spec);
+            }
+            int capacity = Integer.parseInt(spec.substring(eq + 1, slash).strip());
+            long seconds = Long.parseLong(spec.substring(slash + 1).strip());
+            if (capacity < 1 || capacity > TokenBucket.MAX_CAPACITY || seconds < 1) {
+                throw new IllegalArgumentException("Capacidade ou período inválido na regra: " + spec);
+            }
+            parsed.add(new Rule(
+                spec.substring(0, colon).strip().toUpperCase(),
+                PathPatternParser.defaultInstance.parse(spec.substring(colon + 1, eq).strip()),
+                capacity,
+                seconds * 1000,
+                new ConcurrentHashMap<>()
+            ));
+        }
+        return List.copyOf(parsed);
+    }
+}
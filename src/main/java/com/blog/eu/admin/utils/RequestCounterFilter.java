@@ -2,10 +2,16 @@ package com.blog.eu.admin.utils;
 
 import java.io.IOException;
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
+import com.blog.eu.infos.LatencyRecorder;
 import com.blog.eu.infos.RequestCounter;
+import com.blog.eu.infos.RequestRateTracker;
+import com.blog.eu.infos.RouteKeys;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -16,35 +22,57 @@ import jakarta.servlet.http.HttpServletResponse;
  * Filtro responsável por contabilizar requisições recebidas pela aplicação.
  *
  * Este filtro é executado uma vez por requisição (extends {@link OncePerRequestFilter})
- * e incrementa o contador mantido pelo componente {@link RequestCounter}.
- * Após a contagem, a requisição continua normalmente na cadeia de filtros.
+ * e registra a requisição no componente {@link RequestCounter} depois que a
+ * cadeia de filtros termina, já com o status da resposta e a rota atendida.
+ *
+ * A rota é o padrão do mapeamento do controlador (ex.: "GET /api/blog/{postId}"),
+ * e não a URL, para que a quantidade de contadores fique limitada. Requisições
+ * que não chegaram a um controlador (recusadas pela segurança, rate limit,
+ * 404) entram como "METODO UNMATCHED".
+ *
+ * A duração de cada requisição é registrada no {@link LatencyRecorder} e as
+ * taxas das últimas janelas de tempo no {@link RequestRateTracker}, também por rota.
+ *
+ * O filtro roda antes da cadeia do Spring Security, para contar também as
+ * requisições recusadas por ela.
  *
  * Funcionalidade principal:
- * - Incrementar o número de requisições registradas no sistema
+ * - Registrar cada requisição por rota e classe de status
  *
  * Esse filtro é útil para monitoramento e estatísticas de uso da aplicação.
  *
  * @author Luis
  * @see RequestCounter
+ * @see LatencyRecorder
+ * @see RequestRateTracker
  */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class RequestCounterFilter extends OncePerRequestFilter {
 
     private final RequestCounter requestCounter;
+    private final LatencyRecorder latencyRecorder;
+    private final RequestRateTracker rateTracker;
 
     /**
-     * Construtor que injeta o componente {@link RequestCounter}.
+     * Construtor que injeta os componentes de métricas de requisições.
      *
-     * @param requestCounter componente responsável por manter o contador de requisições
+     * @param requestCounter  componente responsável por manter o contador de requisições
+     * @param latencyRecorder componente responsável pelos histogramas de latência
+     * @param rateTracker     componente responsável pelas taxas por janela de tempo
      */
-    public RequestCounterFilter(RequestCounter requestCounter) {
+    public RequestCounterFilter(RequestCounter requestCounter, LatencyRecorder latencyRecorder,
+                                RequestRateTracker rateTracker) {
         this.requestCounter = requestCounter;
+        this.latencyRecorder = latencyRecorder;
+        this.rateTracker = rateTracker;
     }
 
     /**
      * Método chamado internamente para processar cada requisição HTTP.
      *
-     * Incrementa o contador de requisições e continua a execução da cadeia de filtros.
+     * Continua a execução da cadeia de filtros e registra a requisição ao final,
+     * inclusive quando ela termina com exceção (contada como 500).
      *
      * @param request  objeto {@link HttpServletRequest} representando a requisição
      * @param response objeto {@link HttpServletResponse} representando a resposta
@@ -57,7 +85,31 @@ public class RequestCounterFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
-        requestCounter.increment();
-        filterChain.doFilter(request, response);
+        long start = System.nanoTime();
+        rateTracker.started();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            String route = route(request);
+            requestCounter.record(route, status);
+            latencyRecorder.record(route, System.nanoTime() - start);
+            rateTracker.finished(route, status);
+        }
+    }
+
+    /**
+     * Rota atendida pela requisição: método e padrão do mapeamento do controlador.
+     *
+     * Métodos fora dos métodos HTTP padrão viram "OTHER" (ver {@link RouteKeys}),
+     * para que requisições anônimas com métodos inventados não criem rotas novas.
+     *
+     * @param request requisição já processada
+     * @return rota, ou "METODO UNMATCHED" se nenhum controlador atendeu
+     */
+    public static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return RouteKeys.method(request.getMethod()) + " " + (pattern != null ? pattern : "UNMATCHED");
     }
 }
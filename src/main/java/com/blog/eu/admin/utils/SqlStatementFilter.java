@@ -0,0 +1,155 @@
+package com.blog.eu.admin.utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.blog.eu.infos.SqlRequestContext;
+import com.blog.eu.infos.SqlStatsRecorder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Filtro que conta os comandos SQL e o tempo no banco de cada requisição,
+ * para encontrar padrões N+1 antes que cheguem à produção.
+ *
+ * Abre um {@link SqlRequestContext} para a requisição, alimentado pelo
+ * {@link com.blog.eu.infos.SqlStatementInspector} e pelo
+ * {@link com.blog.eu.infos.SqlTimingListener} do Hibernate, e ao final:
+ * - registra os números da rota no {@link SqlStatsRecorder} (endpoint administrativo);
+ * - registra um aviso no log se a requisição passou do orçamento de comandos,
+ *   com os formatos de consulta mais repetidos;
+ * - fora do profile "prod", devolve os cabeçalhos X-SQL-Count e X-SQL-Time-Ms.
+ *
+ * Os cabeçalhos precisam ir antes do corpo, então refletem os comandos
+ * executados até o início da escrita da resposta; o log e as estatísticas
+ * usam a contagem final.
+ *
+ * Configuração:
+ * - app.sql.statement-budget: comandos por requisição antes do aviso (padrão 20)
+ * - app.sql.headers-enabled: força ligar/desligar os cabeçalhos (padrão: desligado só em "prod")
+ *
+ * @author Luis
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private static final int TOP_SHAPES = 5;
+
+    private final SqlStatsRecorder statsRecorder;
+    private final int budget;
+    private final boolean headers;
+
+    public SqlStatementFilter(SqlStatsRecorder statsRecorder, Environment environment) {
+        this.statsRecorder = statsRecorder;
+        this.budget = environment.getProperty("app.sql.statement-budget", Integer.class, 20);
+        this.headers = environment.getProperty("app.sql.headers-enabled", Boolean.class,
+                !environment.acceptsProfiles(Profiles.of("prod")));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestContext context = SqlRequestContext.begin();
+        SqlHeaderResponse wrapped = headers ? new SqlHeaderResponse(response, context) : null;
+        try {
+            filterChain.doFilter(request, wrapped != null ? wrapped : response);
+            if (wrapped != null) {
+                wrapped.addSqlHeaders();
+            }
+        } finally {
+            SqlRequestContext.end();
+            report(RequestCounterFilter.route(request), context);
+        }
+    }
+
+    private void report(String route, SqlRequestContext context) {
+        int statements = context.getStatements();
+        boolean overBudget = statements > budget;
+        statsRecorder.record(route, statements, context.getNanos(), overBudget);
+        if (overBudget) {
+            String repeated = context.topRepeated(TOP_SHAPES).stream()
+                    .map(e -> e.getValue() + "x " + e.getKey())
+                    .collect(Collectors.joining("\n  "));
+            log.warn("{} executou {} comandos SQL ({} ms no banco), acima do orçamento de {}.{}",
+                    route, statements, String.format("%.1f", context.getNanos() / 1e6), budget,
+                    repeated.isEmpty() ? "" : " Consultas repetidas:\n  " + repeated);
+        }
+    }
+
+    /** Resposta que adiciona os cabeçalhos de SQL antes de o corpo começar a ser escrito. */
+    private static final class SqlHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlRequestContext context;
+        private boolean added;
+
+        SqlHeaderResponse(HttpServletResponse response, SqlRequestContext context) {
+            super(response);
+            this.context = context;
+        }
+
+        void addSqlHeaders() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            setHeader("X-SQL-Count", String.valueOf(context.getStatements()));
+            setHeader("X-SQL-Time-Ms", String.format(Locale.ROOT, "%.1f", context.getNanos() / 1e6));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addSqlHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addSqlHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addSqlHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addSqlHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addSqlHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addSqlHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.blog.eu.admin.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks, com todo o estado em um único {@link AtomicLong}.
+ *
+ * Os 40 bits altos guardam o instante da última recarga (milissegundos desde
+ * uma origem comum) e os 24 bits baixos a quantidade de fichas em milésimos.
+ * Cada consumo lê o estado, calcula a recarga proporcional ao tempo passado e
+ * grava o novo estado com compare-and-set; sem disputa, isso custa uma leitura
+ * e um CAS.
+ *
+ * A capacidade máxima é {@link #MAX_CAPACITY} fichas por bucket.
+ *
+ * @author Luis
+ */
+public class TokenBucket {
+
+    /** Maior capacidade representável nos 24 bits de fichas */
+    public static final int MAX_CAPACITY = 16_000;
+
+    private static final long MILLI = 1000;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final long capacityMilli;
+    private final long periodMs;
+    private final AtomicLong state;
+
+    /**
+     * Cria o bucket cheio.
+     *
+     * @param capacity quantidade de fichas (requisições) por período
+     * @param periodMs período de recarga completa, em milissegundos
+     * @param nowMs    instante atual, em milissegundos desde a origem
+     */
+    public TokenBucket(int capacity, long periodMs, long nowMs) {
+        this.capacityMilli = capacity * MILLI;
+        this.periodMs = periodMs;
+        this.state = new AtomicLong(pack(nowMs, capacityMilli));
+    }
+
+    /**
+     * Tenta consumir uma ficha.
+     *
+     * @param nowMs instante atual, em milissegundos desde a origem
+     * @return 0 se a ficha foi consumida; senão, milissegundos até haver uma ficha
+     */
+    public long tryAcquire(long nowMs) {
+        while (true) {
+            long current = state.get();
+            long last = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+            long elapsed = Math.min(Math.max(nowMs - last, 0), periodMs);
+            long available = Math.min(capacityMilli, tokens + elapsed * capacityMilli / periodMs);
+            if (available < MILLI) {
+                return Math.max(1, ((MILLI - available) * periodMs + capacityMilli - 1) / capacityMilli);
+            }
+            if (state.compareAndSet(current, pack(Math.max(nowMs, last), available - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @param nowMs instante atual, em milissegundos desde a origem
+     * @return true se o bucket já estaria cheio (pode ser descartado sem efeito)
+     */
+    public boolean isIdle(long nowMs) {
+        return nowMs - (state.get() >>> TOKEN_BITS) >= periodMs;
+    }
+
+    private static long pack(long timeMs, long tokensMilli) {
+        return (timeMs << TOKEN_BITS) | tokensMilli;
+    }
+}
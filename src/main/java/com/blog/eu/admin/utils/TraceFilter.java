@@ -0,0 +1,63 @@
+package com.blog.eu.admin.utils;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.blog.eu.infos.RequestTrace;
+import com.blog.eu.infos.RequestTracer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que abre o rastro das requisições amostradas pelo {@link RequestTracer}.
+ *
+ * É o primeiro filtro da aplicação: o trecho "http" cobre toda a cadeia de
+ * filtros (contadores, Spring Security, rate limit) e o controlador. Dentro
+ * dele entram os trechos de verificação do JWT, dos métodos de controlador
+ * ({@link TraceHandlerInterceptor}), das chamadas de repositório
+ * ({@link com.blog.eu.config.TracingConfig}) e os manuais (envio de email,
+ * montagem da árvore de comentários).
+ *
+ * Requisições amostradas recebem o cabeçalho X-Trace-Id, para localizar o
+ * rastro no endpoint administrativo. Com a amostragem em 0 o filtro só repassa
+ * a requisição.
+ *
+ * @author Luis
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceFilter extends OncePerRequestFilter {
+
+    private final RequestTracer tracer;
+
+    public TraceFilter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTrace trace = tracer.isEnabled() ? tracer.begin() : null;
+        if (trace == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setHeader("X-Trace-Id", trace.getTraceId());
+        // exceção não tratada: o status 500 só é escrito depois, no dispatch de erro
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try (RequestTrace.Span span = RequestTrace.span("http", "filterChain")) {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            tracer.complete(trace, RequestCounterFilter.route(request), status);
+        }
+    }
+}
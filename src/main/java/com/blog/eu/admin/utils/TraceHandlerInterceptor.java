@@ -0,0 +1,52 @@
+package com.blog.eu.admin.utils;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.blog.eu.infos.RequestTrace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Abre um trecho do rastro em volta de cada método de controlador
+ * (ex.: "BlogController.getPost"), nas requisições rastreadas.
+ *
+ * Em requisições assíncronas (export) o trecho fecha quando o processamento
+ * assíncrono começa, junto com o rastro.
+ *
+ * @author Luis
+ * @see TraceFilter
+ */
+public class TraceHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE = TraceHandlerInterceptor.class.getName() + ".span";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && RequestTrace.active()) {
+            request.setAttribute(SPAN_ATTRIBUTE, RequestTrace.span("controller",
+                    method.getBeanType().getSimpleName() + "." + method.getMethod().getName()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        close(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        close(request);
+    }
+
+    private static void close(HttpServletRequest request) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof RequestTrace.Span span) {
+            request.removeAttribute(SPAN_ATTRIBUTE);
+            span.close();
+        }
+    }
+}
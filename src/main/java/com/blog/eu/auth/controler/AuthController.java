@@ -1,20 +1,24 @@
 package com.blog.eu.auth.controler;
 
 import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.config.OAuth2UserServiceImpl;
 import com.blog.eu.dto.*;
 import com.blog.eu.exepitons.launch.EmailjaEstaEmUso;
 import com.blog.eu.exepitons.launch.Invalid;
 import com.blog.eu.exepitons.launch.NotFout;
+import com.blog.eu.exepitons.launch.ServicoIndisponivel;
 import com.blog.eu.model.Role;
 import com.blog.eu.model.User;
 import com.blog.eu.service.JwtService;
+import com.blog.eu.service.PasswordHashingService;
+import com.blog.eu.service.TokenRevocationService;
+import com.blog.eu.service.UserPrincipalCache;
 
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,12 +33,17 @@ import org.springframework.web.bind.annotation.*;
  * - No registro, o email deve ser único. A senha é armazenada com hash
  *   utilizando BCrypt. Se a role informada for inválida, o usuário é
  *   registrado com role padrão USER.
+ * - O BCrypt roda no pool limitado do {@link PasswordHashingService}, fora
+ *   das threads do Tomcat; com o pool saturado a resposta é 503.
+ * - Após um login bem-sucedido, um hash gravado com custo diferente do
+ *   calibrado é refeito de forma transparente.
  * - No login, as credenciais são validadas contra o repositório. Se válidas,
  *   é gerado um token JWT contendo o ID e a role do usuário.
  *
  * Endpoints disponíveis:
  * - POST /api/auth/register -> registra um novo usuário
  * - POST /api/auth/login    -> autentica usuário e retorna token JWT
+ * - POST /api/auth/logout   -> revoga o token JWT da requisição
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -44,11 +53,20 @@ public class AuthController {
 
     private final UserRepository userRepo;
     private final JwtService jwtService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
-    public AuthController(UserRepository userRepo, JwtService jwtService) {
+    private final TokenRevocationService revocationService;
+    private final PasswordHashingService passwordHashing;
+    private final UserPrincipalCache userCache;
+    private final OAuth2UserServiceImpl oAuth2UserService;
+
+    public AuthController(UserRepository userRepo, JwtService jwtService, TokenRevocationService revocationService,
+                          PasswordHashingService passwordHashing, UserPrincipalCache userCache,
+                          OAuth2UserServiceImpl oAuth2UserService) {
         this.userRepo = userRepo;
         this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.passwordHashing = passwordHashing;
+        this.userCache = userCache;
+        this.oAuth2UserService = oAuth2UserService;
     }
     /**
      * Endpoint para registrar um novo usuário.
@@ -71,7 +89,7 @@ public class AuthController {
 
         User u = new User();
         u.setEmail(dto.getEmail());
-        u.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        u.setPasswordHash(passwordHashing.encode(dto.getPassword()));
         u.setDisplayName(dto.getDisplayName());
 
         
@@ -101,21 +119,48 @@ public class AuthController {
         var user = userRepo.findByEmail(dto.getEmail())
                 .orElseThrow(() -> new NotFout("Usuário não encontrado"));
 
-        if (!passwordEncoder.matches(dto.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashing.matches(dto.getPassword(), user.getPasswordHash())) {
             throw new Invalid("Senha inválida");
         }
 
+        // hash gerado com outro custo do BCrypt → refaz com o custo atual
+        if (passwordHashing.needsRehash(user.getPasswordHash())) {
+            try {
+                userRepo.updatePasswordHash(user.getId(), user.getPasswordHash(),
+                        passwordHashing.encode(dto.getPassword()));
+                userCache.invalidate(user.getId());
+            } catch (ServicoIndisponivel e) {
+                // pool ocupado: o hash é atualizado em um próximo login
+            }
+        }
+
         
         return jwtService.generateToken(user.getId(), user.getRole().name());
     }
+    /**
+     * Endpoint de logout.
+     *
+     * Revoga o token JWT usado na requisição; a partir daí ele deixa de
+     * autenticar, mesmo antes de expirar.
+     *
+     * @throws Invalid se a requisição não tiver um token válido
+     */
+    @PostMapping("/logout")
+    public void logout() {
+        revocationService.revoke(jwtService.currentClaims());
+    }
+
     @GetMapping("/oauth2/success")
     public void oauth2Success(Authentication authentication, HttpServletResponse response) throws IOException {
         OAuth2User principal = (OAuth2User) authentication.getPrincipal();
 
         String email = principal.getAttribute("email");
-        User user = userRepo.findByEmail(email).orElseThrow();
+        OAuthUserSnapshotDTO user = oAuth2UserService.snapshot(email); // já em cache pelo loadUser
+        if (user == null) {
+            throw new NotFout("Usuário não encontrado");
+        }
 
-        String token = jwtService.generateToken(user.getId(), user.getRole().name());
+        String token = jwtService.generateToken(user.id(), user.role().name());
 
         response.sendRedirect("http://localhost:3000/oauth/callback?token=" + token);
     }
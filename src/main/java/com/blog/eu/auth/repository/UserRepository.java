@@ -2,13 +2,60 @@ package com.blog.eu.auth.repository;
 
 
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.blog.eu.dto.OAuthUserSnapshotDTO;
+import com.blog.eu.dto.UserDTO;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 @Repository
 public interface UserRepository extends JpaRepository<com.blog.eu.model.User, Long> {
     Optional<com.blog.eu.model.User> findByEmail(String email);
-   
-}
\ No newline at end of file
+
+    /** Emails, entre os informados, que já estão cadastrados (uma consulta por lote) */
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /** Dados usados no login social, sem carregar a entidade e suas associações */
+    @Query("select new com.blog.eu.dto.OAuthUserSnapshotDTO(u.id, u.displayName, u.avatarUrl, u.role) from User u where u.email = :email")
+    Optional<OAuthUserSnapshotDTO> findOAuthSnapshotByEmail(String email);
+
+    /** Atualiza só os atributos vindos do provedor OAuth2 */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.displayName = :displayName, u.avatarUrl = :avatarUrl where u.id = :id")
+    int updateProviderProfile(Long id, String displayName, String avatarUrl);
+
+    /**
+     * Percorre os dados públicos de todos os usuários para o export, sem carregar entidades,
+     * com as linhas entregues uma a uma pelo driver do MySQL.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        select new com.blog.eu.dto.UserDTO(
+            u.id, u.displayName, u.email, u.avatarUrl, u.role, u.bio, u.location, u.website)
+        from User u order by u.id
+        """)
+    Stream<UserDTO> streamForExport();
+
+    /**
+     * Troca o hash da senha só se ele ainda for o hash lido, para não
+     * sobrescrever uma troca de senha feita no meio do caminho.
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.passwordHash = :newHash where u.id = :id and u.passwordHash = :oldHash")
+    int updatePasswordHash(Long id, String oldHash, String newHash);
+
+}
@@ -0,0 +1,103 @@
+package com.blog.eu.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings, seguro para uso concorrente sem locks.
+ *
+ * Responde "com certeza não contém" ou "talvez contenha": nunca há falso
+ * negativo, e a taxa de falsos positivos fica perto da configurada enquanto
+ * a quantidade de elementos não passar da capacidade informada.
+ *
+ * Os bits ficam em um {@link AtomicLongArray}; as k posições de cada elemento
+ * são obtidas por hashing duplo a partir de um hash de 64 bits (FNV-1a
+ * seguido do finalizador do MurmurHash3). Não é possível remover elementos:
+ * para descartar itens, crie um novo filtro.
+ *
+ * @author Luis
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions quantidade esperada de elementos
+     * @param falsePositiveRate  taxa de falsos positivos desejada (ex.: 0.01)
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(expectedInsertions, 1);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * ln2));
+    }
+
+    /** Adiciona o valor ao filtro. */
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * @param value valor consultado
+     * @return false se o valor certamente não foi adicionado; true se talvez tenha sido
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return quantidade de bits do filtro */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /** @return quantidade de funções de hash */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % bitCount;
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
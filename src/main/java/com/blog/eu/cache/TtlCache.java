@@ -0,0 +1,163 @@
+package com.blog.eu.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória limitado por tamanho (LRU) e por tempo de vida (TTL).
+ *
+ * Os acessos ao mapa são sincronizados, mas o carregamento de um valor
+ * ausente acontece fora do lock. Para não reinserir um valor que ficou
+ * obsoleto durante o carregamento, o cache mantém um contador de
+ * invalidações: se alguma invalidação ocorreu enquanto o valor era
+ * carregado, ele é devolvido ao chamador mas não é armazenado.
+ *
+ * Mantém contadores de acertos, faltas e remoções por tamanho/expiração.
+ *
+ * @param <K> tipo da chave
+ * @param <V> tipo do valor
+ * @author Luis
+ */
+public class TtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> map;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize    quantidade máxima de entradas
+     * @param ttlSeconds tempo de vida de cada entrada, em segundos
+     */
+    public TtlCache(int maxSize, long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtém o valor da chave, se presente e não expirado.
+     *
+     * @param key chave buscada
+     * @return valor armazenado ou null
+     */
+    public V get(K key) {
+        return get(key, v -> true);
+    }
+
+    /**
+     * Obtém o valor da chave, se presente, não expirado e aceito pelo teste informado.
+     *
+     * @param key   chave buscada
+     * @param fresh teste que o valor armazenado precisa passar para ser usado
+     * @return valor armazenado ou null
+     */
+    private V get(K key, Predicate<? super V> fresh) {
+        long now = System.nanoTime();
+        synchronized (map) {
+            Entry<V> e = map.get(key);
+            if (e != null && e.expiresAt() - now > 0 && fresh.test(e.value())) {
+                hits.increment();
+                return e.value();
+            }
+            if (e != null && e.expiresAt() - now <= 0) {
+                map.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Obtém o valor da chave ou o carrega com o loader informado (read-through).
+     *
+     * @param key    chave buscada
+     * @param loader função que carrega o valor quando ele não está no cache
+     * @return valor do cache ou recém carregado
+     */
+    public V getOrLoad(K key, Supplier<V> loader) {
+        return getOrLoad(key, v -> true, loader);
+    }
+
+    /**
+     * Como {@link #getOrLoad(Object, Supplier)}, mas um valor armazenado que
+     * não passa no teste informado conta como falta: o valor é carregado de
+     * novo e substitui a entrada, com a mesma proteção contra invalidações.
+     *
+     * @param key    chave buscada
+     * @param fresh  teste que o valor armazenado precisa passar para ser usado
+     * @param loader função que carrega o valor quando ele não está no cache
+     * @return valor do cache ou recém carregado
+     */
+    public V getOrLoad(K key, Predicate<? super V> fresh, Supplier<V> loader) {
+        V cached = get(key, fresh);
+        if (cached != null) {
+            return cached;
+        }
+        long before = invalidations.get();
+        V loaded = loader.get();
+        if (loaded != null) {
+            synchronized (map) {
+                if (invalidations.get() == before) {
+                    map.put(key, new Entry<>(loaded, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /** Armazena o valor para a chave. */
+    public void put(K key, V value) {
+        synchronized (map) {
+            map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /** Remove a entrada da chave, se existir. */
+    public void invalidate(K key) {
+        synchronized (map) {
+            invalidations.incrementAndGet();
+            map.remove(key);
+        }
+    }
+
+    /** Remove todas as entradas. */
+    public void invalidateAll() {
+        synchronized (map) {
+            invalidations.incrementAndGet();
+            map.clear();
+        }
+    }
+
+    /** @return quantidade atual de entradas (incluindo expiradas ainda não removidas) */
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+}
@@ -2,7 +2,9 @@ package com.blog.eu.config;
 
 
 import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
@@ -10,17 +12,42 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
 import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.cache.TtlCache;
+import com.blog.eu.dto.OAuthUserSnapshotDTO;
 import com.blog.eu.model.User;
+import com.blog.eu.service.UserPrincipalCache;
 import com.blog.eu.model.Role;
 
+/**
+ * Carrega o usuário do login social (Google/GitHub) e sincroniza o cadastro local.
+ *
+ * Os dados locais do usuário ficam em um cache curto por email; o banco só é
+ * escrito quando o usuário é novo ou quando o nome ou o avatar do provedor
+ * mudaram, então logins repetidos não fazem nenhuma escrita. A role do
+ * usuário existente nunca é alterada aqui.
+ *
+ * Configuração:
+ * - app.cache.oauth-users.max-size: quantidade máxima de emails em cache (padrão 10000)
+ * - app.cache.oauth-users.ttl-seconds: tempo de vida de cada entrada (padrão 300)
+ *
+ * @author Luis
+ */
 @Service
 public class OAuth2UserServiceImpl implements OAuth2UserService<OAuth2UserRequest, OAuth2User> {
 
     private final DefaultOAuth2UserService delegate = new DefaultOAuth2UserService();
     private final UserRepository userRepo;
+    private final UserPrincipalCache userCache;
 
-    public OAuth2UserServiceImpl(UserRepository userRepo) {
+    /** email -> dados locais do usuário */
+    private final TtlCache<String, OAuthUserSnapshotDTO> snapshots;
+
+    public OAuth2UserServiceImpl(UserRepository userRepo, UserPrincipalCache userCache,
+            @Value("${app.cache.oauth-users.max-size:10000}") int maxSize,
+            @Value("${app.cache.oauth-users.ttl-seconds:300}") long ttlSeconds) {
         this.userRepo = userRepo;
+        this.userCache = userCache;
+        this.snapshots = new TtlCache<>(maxSize, ttlSeconds);
     }
 
     @Override
@@ -39,14 +66,44 @@ public class OAuth2UserServiceImpl implements OAuth2UserService<OAuth2UserReques
                         ? (String) attributes.get("picture")
                         : (String) attributes.get("avatar_url");
 
-        // Salvar/atualizar no banco
-        User user = userRepo.findByEmail(email).orElse(new User());
-        user.setEmail(email);
-        user.setDisplayName(name);
-        user.setAvatarUrl(avatar);
-        user.setRole(Role.USER);
-        userRepo.save(user);
+        OAuthUserSnapshotDTO current = snapshot(email);
+        if (current == null) {
+            // Usuário novo: sem senha local, só entra pelo provedor
+            User user = new User();
+            user.setEmail(email);
+            user.setPasswordHash("");
+            user.setDisplayName(name);
+            user.setAvatarUrl(avatar);
+            user.setRole(Role.USER);
+            userRepo.save(user);
+            snapshots.invalidate(email);
+        } else if (!Objects.equals(current.displayName(), name) || !Objects.equals(current.avatarUrl(), avatar)) {
+            // Só atualiza quando o provedor mudou algo
+            userRepo.updateProviderProfile(current.id(), name, avatar);
+            snapshots.invalidate(email);
+            userCache.invalidate(current.id());
+        }
 
         return oauthUser;
     }
+
+    /**
+     * Obtém os dados locais do usuário pelo email, do cache ou do banco.
+     *
+     * @param email email do usuário
+     * @return dados do usuário, ou null se não existir
+     */
+    public OAuthUserSnapshotDTO snapshot(String email) {
+        if (email == null) {
+            return null;
+        }
+        return snapshots.getOrLoad(email, () -> userRepo.findOAuthSnapshotByEmail(email).orElse(null));
+    }
+
+    /** Remove o email do cache após uma alteração do usuário fora do login social. */
+    public void invalidate(String email) {
+        if (email != null) {
+            snapshots.invalidate(email);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.blog.eu.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,6 +10,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.blog.eu.admin.utils.RateLimitFilter;
 import com.blog.eu.model.JwtAuthenticationFilter;
 
 @Configuration
@@ -18,13 +21,37 @@ public class SecurityConfig {
     
     private final OAuth2UserServiceImpl oAuth2UserServiceImpl;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtFilter, OAuth2UserServiceImpl oAuth2UserServiceImpl) {
+    private final RateLimitFilter rateLimitFilter;
+
+    /** Porta separada do Actuator (management.server.port), ou -1 se ele usa a porta da aplicação */
+    private final int managementPort;
+
+    public SecurityConfig(JwtAuthenticationFilter jwtFilter, OAuth2UserServiceImpl oAuth2UserServiceImpl,
+                          RateLimitFilter rateLimitFilter,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.jwtFilter = jwtFilter;
         this.oAuth2UserServiceImpl = oAuth2UserServiceImpl;
+        this.rateLimitFilter = rateLimitFilter;
+        this.managementPort = managementPort;
     }
 
-    
+    /**
+     * O rate limit roda só dentro da cadeia de segurança (depois do JWT);
+     * sem isso o Spring Boot também o registraria antes dela, sem o usuário.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
 
+    /**
+     * Actuator: /actuator/health é público. Com management.server.port definido,
+     * todos os endpoints do Actuator ficam nessa porta separada (exposta só na
+     * rede interna, via management.server.address/firewall) e liberados, para o
+     * Prometheus coletar sem token; na porta da aplicação eles exigem ADMIN.
+     */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 
@@ -42,6 +69,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/blog/**").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/peditos/add").permitAll()
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
 
@@ -58,6 +88,9 @@ public class SecurityConfig {
             .addFilterBefore(jwtFilter,
                 org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
 
+            // 👉 Rate limit depois do JWT, para limitar por usuário quando autenticado
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+
             // desabilita formulários e autenticação básica
             .httpBasic(httpBasic -> httpBasic.disable())
             .formLogin(form -> form.disable());
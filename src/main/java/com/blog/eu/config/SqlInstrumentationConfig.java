@@ -0,0 +1,28 @@
+package com.blog.eu.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.blog.eu.infos.SqlStatementInspector;
+import com.blog.eu.infos.SqlTimingListener;
+
+/**
+ * Registra no Hibernate a contagem de comandos SQL e a medição do tempo no
+ * banco por requisição.
+ *
+ * @author Luis
+ * @see com.blog.eu.admin.utils.SqlStatementFilter
+ */
+@Configuration
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlInstrumentationCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.blog.eu.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.blog.eu.admin.utils.TraceHandlerInterceptor;
+import com.blog.eu.infos.RequestTrace;
+
+/**
+ * Liga o rastreamento de requisições ao Spring MVC e ao Spring Data.
+ *
+ * - Métodos de controlador: {@link TraceHandlerInterceptor}.
+ * - Repositórios: um {@link RepositoryMethodInvocationListener} adicionado a
+ *   cada fábrica de repositório (o mesmo ponto de extensão usado pelas métricas
+ *   do Actuator), que registra a chamada como trecho "repository" já concluído.
+ *
+ * Fora de uma requisição rastreada os dois só consultam o ThreadLocal do rastro.
+ *
+ * @author Luis
+ * @see com.blog.eu.admin.utils.TraceFilter
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TraceHandlerInterceptor());
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor() {
+        RepositoryMethodInvocationListener listener = invocation -> {
+            if (RequestTrace.active()) {
+                RequestTrace.completed("repository",
+                        invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                        invocation.getDuration(TimeUnit.NANOSECONDS));
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
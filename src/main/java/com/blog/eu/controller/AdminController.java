@@ -1,7 +1,13 @@
 package com.blog.eu.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,15 +17,39 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.config.OAuth2UserServiceImpl;
+import com.blog.eu.dto.CacheStatsDTO;
+import com.blog.eu.dto.LatencyReportDTO;
+import com.blog.eu.dto.PasswordHashingStatsDTO;
+import com.blog.eu.dto.RequestRatesDTO;
+import com.blog.eu.dto.RequestStatsDTO;
+import com.blog.eu.dto.RouteSqlStatsDTO;
+import com.blog.eu.dto.TraceDTO;
+import com.blog.eu.dto.TrafficPointDTO;
+import com.blog.eu.enuns.TrafficGranularity;
 import com.blog.eu.dto.UpdateUserRoleDTO;
 import com.blog.eu.dto.UserDTO;
+import com.blog.eu.infos.LatencyRecorder;
 import com.blog.eu.infos.RequestCounter;
+import com.blog.eu.infos.RequestRateTracker;
+import com.blog.eu.infos.RequestTracer;
+import com.blog.eu.infos.SqlStatsRecorder;
 import com.blog.eu.model.Role;
 import com.blog.eu.model.User;
+import com.blog.eu.repo.TrafficStatRepository;
+import com.blog.eu.service.ExportService;
 import com.blog.eu.service.JwtService;
+import com.blog.eu.service.PasswordHashingService;
+import com.blog.eu.service.PostCache;
+import com.blog.eu.service.UserImportService;
+import com.blog.eu.service.UserPrincipalCache;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 /**
@@ -34,7 +64,16 @@ import com.blog.eu.service.JwtService;
  * - Adicionar novos usuários com papel de administrador
  * - Obter informações detalhadas de um usuário pelo seu ID
  * - Verificar se um usuário possui papel ADMIN
- * - Consultar o número de requisições realizadas no dia
+ * - Consultar o número de requisições realizadas no dia, por rota e status
+ * - Consultar os percentis de latência por rota
+ * - Consultar as taxas de requisições e erros das últimas janelas de tempo
+ * - Consultar o histórico diário e por hora do tráfego
+ * - Consultar a quantidade de comandos SQL por requisição de cada rota
+ * - Consultar os rastros mais lentos entre as requisições amostradas
+ * - Consultar as estatísticas dos caches de posts e de usuários
+ * - Consultar as métricas do pool de hashing de senhas
+ * - Exportar usuários, posts e comentários em NDJSON
+ * - Importar usuários em massa (CSV ou NDJSON)
  *
  * O controle de acesso é feito pelo método verificarAcesso, que valida
  * o token JWT e garante que apenas administradores possam acessar os recursos.
@@ -51,10 +90,37 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final RequestCounter requestCounter;
+    private final PostCache postCache;
+    private final ExportService exportService;
+    private final UserPrincipalCache userCache;
+    private final PasswordHashingService passwordHashing;
+    private final OAuth2UserServiceImpl oAuth2UserService;
+    private final UserImportService userImportService;
+    private final LatencyRecorder latencyRecorder;
+    private final RequestRateTracker rateTracker;
+    private final TrafficStatRepository trafficStatRepository;
+    private final SqlStatsRecorder sqlStatsRecorder;
+    private final RequestTracer tracer;
 
-    public AdminController(UserRepository userRepository, RequestCounter requestCounter) {
+    public AdminController(UserRepository userRepository, RequestCounter requestCounter, PostCache postCache,
+                           ExportService exportService, UserPrincipalCache userCache,
+                           PasswordHashingService passwordHashing, OAuth2UserServiceImpl oAuth2UserService,
+                           UserImportService userImportService, LatencyRecorder latencyRecorder,
+                           RequestRateTracker rateTracker, TrafficStatRepository trafficStatRepository,
+                           SqlStatsRecorder sqlStatsRecorder, RequestTracer tracer) {
         this.userRepository = userRepository;
         this.requestCounter = requestCounter;
+        this.postCache = postCache;
+        this.exportService = exportService;
+        this.userCache = userCache;
+        this.passwordHashing = passwordHashing;
+        this.oAuth2UserService = oAuth2UserService;
+        this.userImportService = userImportService;
+        this.latencyRecorder = latencyRecorder;
+        this.rateTracker = rateTracker;
+        this.trafficStatRepository = trafficStatRepository;
+        this.sqlStatsRecorder = sqlStatsRecorder;
+        this.tracer = tracer;
     }
 
 
@@ -64,13 +130,17 @@ public class AdminController {
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
         User existingUser = userRepository.findById(id).orElse(null);
         if (existingUser != null) {
+            oAuth2UserService.invalidate(existingUser.getEmail());
             existingUser.setDisplayName(user.getDisplayName());
             existingUser.setEmail(user.getEmail());
             existingUser.setAvatarUrl(user.getAvatarUrl());
             existingUser.setBio(user.getBio());
             existingUser.setLocation(user.getLocation());
             existingUser.setWebsite(user.getWebsite());
-            return ResponseEntity.ok().body(userRepository.save(existingUser));
+            User saved = userRepository.save(existingUser);
+            userCache.invalidate(id);
+            oAuth2UserService.invalidate(saved.getEmail());
+            return ResponseEntity.ok().body(saved);
         }
         return ResponseEntity.notFound().build();
     }
@@ -114,14 +184,123 @@ public class AdminController {
     @DeleteMapping("/delete/user/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteUser(@PathVariable Long id) {
+        userRepository.findById(id).ifPresent(u -> oAuth2UserService.invalidate(u.getEmail()));
         userRepository.deleteById(id);
+        userCache.invalidate(id);
     }
 
     
     @GetMapping("/info/requisitions")
     @PreAuthorize("hasRole('ADMIN')")
-    public int getRequisitions() {
-        return requestCounter.getCount();
+    public RequestStatsDTO getRequisitions() {
+        return requestCounter.getStats();
+    }
+
+    /**
+     * Latência por rota (p50/p90/p99/p99,9 e máxima).
+     *
+     * @param current true para o intervalo em andamento; por padrão, o último intervalo completo
+     */
+    @GetMapping("/info/latency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LatencyReportDTO getLatency(@RequestParam(defaultValue = "false") boolean current) {
+        LatencyReportDTO previous = latencyRecorder.getPrevious();
+        return current || previous == null ? latencyRecorder.getCurrent() : previous;
+    }
+
+    /** Taxa de requisições e de erros no último minuto, 5 minutos e hora, e requisições em andamento. */
+    @GetMapping("/info/rates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RequestRatesDTO getRates() {
+        return rateTracker.getRates();
+    }
+
+    /**
+     * Histórico de tráfego gravado pelo {@link com.blog.eu.infos.TrafficStatsFlusher}.
+     *
+     * @param granularity HOUR ou DAY
+     * @param route       rota (método e padrão) ou "*" para o total
+     * @param days        quantidade de dias para trás (padrão: 365 para DAY, 2 para HOUR)
+     * @return série ordenada do mais antigo para o mais recente
+     */
+    @GetMapping("/info/traffic/history")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<TrafficPointDTO> getTrafficHistory(
+            @RequestParam(defaultValue = "DAY") TrafficGranularity granularity,
+            @RequestParam(defaultValue = "*") String route,
+            @RequestParam(required = false) Integer days) {
+        int span = days != null ? days : (granularity == TrafficGranularity.DAY ? 365 : 2);
+        LocalDateTime to = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        return trafficStatRepository.findSeries(granularity, route, to.minusDays(span + 1L), to);
+    }
+
+    /** Comandos SQL e tempo no banco por requisição, por rota (N+1 aparece como média alta). */
+    @GetMapping("/info/sql")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<RouteSqlStatsDTO> getSqlStats() {
+        return sqlStatsRecorder.getStats();
+    }
+
+    /** Rastros mais lentos entre os guardados no buffer (app.tracing.sample-rate define a amostragem). */
+    @GetMapping("/info/traces")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<TraceDTO> getSlowestTraces(@RequestParam(defaultValue = "20") int limit) {
+        return tracer.slowest(limit);
+    }
+
+    @GetMapping("/info/cache/posts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CacheStatsDTO getPostCacheStats() {
+        return postCache.stats();
+    }
+
+    @GetMapping("/info/cache/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CacheStatsDTO getUserCacheStats() {
+        return userCache.stats();
+    }
+
+    @GetMapping("/info/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PasswordHashingStatsDTO getPasswordHashingStats() {
+        return passwordHashing.stats();
+    }
+
+    /**
+     * Exporta todos os usuários, posts e comentários em NDJSON, como um stream.
+     *
+     * A resposta é escrita de forma assíncrona; exports grandes podem exigir
+     * aumentar spring.mvc.async.request-timeout.
+     *
+     * @return corpo da resposta escrito pelo {@link ExportService}
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBlog() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"blog-export.ndjson\"")
+                .body(exportService::exportar);
+    }
+
+    /**
+     * Importa usuários em massa a partir de CSV (text/csv) ou NDJSON (application/x-ndjson).
+     *
+     * O relatório por linha é escrito em NDJSON enquanto a entrada é lida.
+     * Como no export, a importação roda de forma assíncrona, fora da thread
+     * da requisição, e a quantidade de linhas é limitada por app.import.max-rows.
+     *
+     * @return corpo da resposta escrito pelo {@link UserImportService}
+     * @see UserImportService
+     */
+    @PostMapping(value = "/import/users", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        InputStream in = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userImportService.importar(in, csv, out));
     }
 
     @PutMapping("/up/admin")
@@ -133,7 +312,10 @@ public class AdminController {
 
         user.setRole(dto.getRole());
 
-        return ResponseEntity.ok(userRepository.save(user));
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getId());
+        oAuth2UserService.invalidate(saved.getEmail());
+        return ResponseEntity.ok(saved);
     }
 
 }
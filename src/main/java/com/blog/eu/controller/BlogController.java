@@ -1,28 +1,37 @@
 package com.blog.eu.controller;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.blog.eu.dto.AuthorDTO;
 import com.blog.eu.dto.ComentarioDTO;
+import com.blog.eu.dto.ComentarioResumoDTO;
+import com.blog.eu.dto.CursorPageDTO;
 import com.blog.eu.dto.PostDTO;
+import com.blog.eu.dto.PostSummaryDTO;
+import com.blog.eu.dto.SearchResultsDTO;
 import com.blog.eu.exepitons.launch.Invalid;
 import com.blog.eu.exepitons.launch.NotFout;
 import com.blog.eu.model.Comentario;
 import com.blog.eu.model.Post;
-import com.blog.eu.model.Role;
 import com.blog.eu.model.User;
 import com.blog.eu.repo.ComentarioRepository;
 import com.blog.eu.repo.PostRepository;
+import com.blog.eu.service.ComentarioService;
+import com.blog.eu.service.ComentarioTreeService;
 import com.blog.eu.service.JwtService;
-
-import jakarta.servlet.http.HttpServletRequest;
+import com.blog.eu.service.PostCache;
+import com.blog.eu.service.SearchIndexService;
 
 /**
  * Controlador principal do blog.
@@ -37,12 +46,18 @@ import jakarta.servlet.http.HttpServletRequest;
  *
  * Endpoints disponíveis:
  * - GET /api/blog -> lista posts com paginação
+ * - GET /api/blog?limit=&after= -> lista posts por cursor (keyset)
+ * - GET /api/blog/summary -> lista resumos de posts por cursor
+ * - GET /api/blog/search -> busca textual em posts e comentários
  * - POST /api/blog -> cria novo post (ADMIN)
  * - DELETE /api/blog/{postId}/delete -> exclui post (ADMIN e autor)
  * - POST /api/blog/{postId}/comment -> cria comentário em um post
  * - POST /api/blog/comment/{commentId}/reply -> cria resposta a um comentário
  * - POST /api/blog/comment/{commentId}/edit -> edita comentário (autor)
  * - GET /api/blog/comment/{postId}/all -> lista comentários de um post
+ * - GET /api/blog/comment/{postId}/top -> lista comentários raiz de um post por cursor
+ * - GET /api/blog/comment/{commentId}/replies -> lista respostas de um comentário por cursor
+ * - GET /api/blog/comment/{commentId}/subtree -> carrega a subárvore de um comentário
  * - DELETE /api/blog/comment/{commentId}/delete -> exclui comentário (autor)
  */
 @RestController
@@ -53,13 +68,26 @@ public class BlogController {
     private final PostRepository postRepository;
     private final ComentarioRepository comentarioRepository;
     private final com.blog.eu.auth.repository.UserRepository userRepository;
+    private final ComentarioTreeService comentarioTreeService;
+    private final PostCache postCache;
+    private final ComentarioService comentarioService;
+    private final SearchIndexService searchIndex;
+
+    /** Tamanho máximo de página nas listagens por cursor */
+    private static final int MAX_CURSOR_LIMIT = 100;
 
     public BlogController(PostRepository postRepository, JwtService jwtService,
-            ComentarioRepository comentarioRepository, com.blog.eu.auth.repository.UserRepository userRepository) {
+            ComentarioRepository comentarioRepository, com.blog.eu.auth.repository.UserRepository userRepository,
+            ComentarioTreeService comentarioTreeService, PostCache postCache,
+            ComentarioService comentarioService, SearchIndexService searchIndex) {
         this.postRepository = postRepository;
         this.jwtService = jwtService;
         this.comentarioRepository = comentarioRepository;
         this.userRepository = userRepository;
+        this.comentarioTreeService = comentarioTreeService;
+        this.postCache = postCache;
+        this.comentarioService = comentarioService;
+        this.searchIndex = searchIndex;
     }
 
     /**
@@ -76,19 +104,171 @@ public class BlogController {
     @GetMapping
     public ResponseEntity<List<PostDTO>> getPosts(@RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
+        List<Post> posts = postRepository.findAll(PageRequest.of(page, size)).getContent();
+        Map<Long, List<ComentarioDTO>> trees = comentarioTreeService.loadTrees(
+                posts.stream().map(Post::getId).toList());
         return ResponseEntity.ok(
-            postRepository.findAll(PageRequest.of(page, size))
-                .map(this::toPostDTO)
-                .getContent()
+            posts.stream()
+                .map(p -> toPostDTO(p, trees.getOrDefault(p.getId(), List.of())))
+                .toList()
         );
     }
 
 
+    /**
+     * Endpoint para listar posts do blog por cursor (keyset pagination).
+     *
+     * Ativado quando o parâmetro "limit" é informado. Os posts são percorridos
+     * pelo índice da chave primária, do mais recente para o mais antigo, sem
+     * OFFSET e sem consulta de contagem: qualquer página custa o mesmo que a primeira.
+     *
+     * @param after cursor opaco devolvido pela página anterior (ausente na primeira página)
+     * @param limit quantidade de posts por página (máximo {@value #MAX_CURSOR_LIMIT})
+     * @return ResponseEntity com status 200, os posts da página e o cursor da próxima
+     * @throws Invalid se o cursor ou o limite forem inválidos
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDTO<PostDTO>> getPostsByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        checkCursorLimit(limit);
+
+        List<Post> posts = after == null
+                ? postRepository.findAllByOrderByIdDesc(Limit.of(limit + 1))
+                : postRepository.findByIdLessThanOrderByIdDesc(decodeCursor(after), Limit.of(limit + 1));
+
+        String nextCursor = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            nextCursor = encodeCursor(posts.get(limit - 1).getId());
+        }
+
+        Map<Long, List<ComentarioDTO>> trees = comentarioTreeService.loadTrees(
+                posts.stream().map(Post::getId).toList());
+        return ResponseEntity.ok(new CursorPageDTO<>(
+            posts.stream()
+                .map(p -> toPostDTO(p, trees.getOrDefault(p.getId(), List.of())))
+                .toList(),
+            nextCursor
+        ));
+    }
+
+    /**
+     * Endpoint para listar resumos de posts por cursor.
+     *
+     * Cada item traz id, título, um trecho limitado do conteúdo, o autor e a
+     * quantidade de comentários. O conteúdo completo e a árvore de comentários
+     * não são carregados do banco, o que reduz o payload e o I/O das páginas de índice.
+     *
+     * @param after cursor opaco devolvido pela página anterior (ausente na primeira página)
+     * @param limit quantidade de resumos por página (padrão 20)
+     * @return ResponseEntity com status 200, os resumos da página e o cursor da próxima
+     * @throws Invalid se o cursor ou o limite forem inválidos
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> getPostSummaries(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        checkCursorLimit(limit);
+
+        List<PostSummaryDTO> summaries = after == null
+                ? postRepository.findSummaries(Limit.of(limit + 1))
+                : postRepository.findSummariesBefore(decodeCursor(after), Limit.of(limit + 1));
+
+        String nextCursor = null;
+        if (summaries.size() > limit) {
+            summaries = summaries.subList(0, limit);
+            nextCursor = encodeCursor(summaries.get(limit - 1).id());
+        }
+        return ResponseEntity.ok(new CursorPageDTO<>(summaries, nextCursor));
+    }
+
+    /**
+     * Endpoint de busca textual em posts e comentários.
+     *
+     * A busca usa o índice invertido em memória, sem consultar o banco.
+     * Os resultados vêm ordenados por relevância, com um trecho do texto
+     * em torno do termo encontrado.
+     *
+     * @param q    texto buscado
+     * @param page número da página (padrão 0)
+     * @param size quantidade de resultados por página (padrão 10)
+     * @return ResponseEntity com status 200 e a página de resultados
+     * @throws Invalid se a consulta estiver vazia ou a paginação for inválida
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultsDTO> search(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            throw new Invalid("Informe o texto da busca");
+        }
+        if (page < 0) {
+            throw new Invalid("A página não pode ser negativa");
+        }
+        checkCursorLimit(size);
+        return ResponseEntity.ok(searchIndex.search(q, page, size));
+    }
+
+    /** Valida o tamanho de página pedido em listagens por cursor. */
+    private void checkCursorLimit(int limit) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            throw new Invalid("O limite deve estar entre 1 e " + MAX_CURSOR_LIMIT);
+        }
+    }
+
+    /** Gera o cursor opaco (Base64 URL-safe) a partir do último id da página. */
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Recupera o id contido em um cursor gerado por {@link #encodeCursor(Long)}. */
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new Invalid("Cursor inválido");
+        }
+    }
+
+    /**
+     * Endpoint para buscar um post com sua árvore de comentários.
+     *
+     * Suporta GET condicional: a resposta traz um ETag forte derivado da versão
+     * do post. Se o cliente enviar o mesmo valor em If-None-Match, a resposta é
+     * 304 sem corpo, após apenas uma leitura da versão pela PK.
+     *
+     * @param postId     ID do post
+     * @param webRequest requisição usada para avaliar o If-None-Match
+     * @return ResponseEntity com status 200 e o post, ou 304 se não houve alteração
+     * @throws NotFout se o post não for encontrado
+     */
     @GetMapping("/{postId}")
-    public ResponseEntity<PostDTO> getPostById(@PathVariable Long postId) {
-        Post post = postRepository.findById(postId)
+    public ResponseEntity<PostDTO> getPostById(@PathVariable Long postId, WebRequest webRequest) {
+        long version = findPostVersion(postId);
+        String etag = etag(postId, version);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        PostDTO dto = postCache.getOrLoad(postId, version, () -> {
+            Post post = postRepository.findById(postId)
+                    .orElseThrow(() -> new NotFout("Post não encontrado"));
+            return toPostDTO(post, comentarioTreeService.loadTree(postId));
+        });
+        return ResponseEntity.ok().eTag(etag).body(dto);
+    }
+
+    /** Lê a versão atual do post, usada nos ETags. */
+    private long findPostVersion(Long postId) {
+        return postRepository.findVersionById(postId)
                 .orElseThrow(() -> new NotFout("Post não encontrado"));
-        return ResponseEntity.ok(toPostDTO(post));
+    }
+
+    /** Gera o ETag forte de um post a partir de sua versão. */
+    private static String etag(Long postId, long version) {
+        return "\"" + postId + "-" + version + "\"";
     }
 
 
@@ -99,7 +279,6 @@ public class BlogController {
      * será definido como autor do post.
      *
      * @param post objeto Post contendo os dados do novo post
-     * @param req  objeto HttpServletRequest usado para extrair o token JWT
      * @return ResponseEntity com status 200 e o post criado se a operação for
      *         bem-sucedida;
      *         ResponseEntity com status 403 se o usuário não tiver permissão
@@ -108,25 +287,16 @@ public class BlogController {
      */
 
 @PostMapping
-public ResponseEntity<PostDTO> createPost(@RequestBody Post post, HttpServletRequest req) {
-    String header = req.getHeader("Authorization");
-    if (header == null || !header.startsWith("Bearer ")) {
-        throw new Invalid("Token ausente");
-    }
-
-    String role = jwtService.parseRole(header.substring(7));
-    if (!Role.ADMIN.name().equals(role)) {
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-    }
-
-    Long userId = jwtService.parseSubject(header.substring(7));
-    User autor = userRepository.findById(userId)
+@PreAuthorize("hasRole('ADMIN')")
+public ResponseEntity<PostDTO> createPost(@RequestBody Post post) {
+    User autor = userRepository.findById(jwtService.currentClaims().userId())
             .orElseThrow(() -> new NotFout("Usuário não encontrado"));
 
     post.setAuthor(autor);
     Post saved = postRepository.save(post);
+    searchIndex.indexPost(saved.getId(), saved.getTitle(), saved.getContent());
 
-    return ResponseEntity.ok(toPostDTO(saved));
+    return ResponseEntity.ok(toPostDTO(saved, List.of()));
 }
 
 
@@ -138,29 +308,30 @@ public ResponseEntity<PostDTO> createPost(@RequestBody Post post, HttpServletReq
      *
      * @param postId  ID do post ao qual o comentário será associado
      * @param comment objeto Comentario contendo os dados do comentário
-     * @param req     objeto HttpServletRequest usado para extrair o token JWT
      * @return o comentário salvo no repositório
      * @throws RuntimeException se o post não for encontrado
      */
 
     @PostMapping("/{postId}/comment")
     public Comentario createComment(@PathVariable Long postId,
-            @RequestBody Comentario comment,
-            HttpServletRequest req) {
+            @RequestBody Comentario comment) {
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new NotFout("Post não encontrado"));
 
-        Long userId = jwtService.parseSubject(req.getHeader("Authorization").substring(7));
+        Long userId = jwtService.currentClaims().userId();
         User autor = userRepository.findById(userId).orElseThrow();
 
-        comment.setPost(post);
-        comment.setAutor(autor);
-        comment.setDataCriacao(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-
-        return comentarioRepository.save(comment);
+        return comentarioService.criar(post, autor, comment);
     }
-    private PostDTO toPostDTO(Post post) {
+    /**
+     * Converte um post em {@link PostDTO} usando a árvore de comentários já carregada.
+     *
+     * @param post     post a ser convertido
+     * @param comments comentários raiz do post, montados pelo {@link ComentarioTreeService}
+     * @return DTO do post
+     */
+    private PostDTO toPostDTO(Post post, List<ComentarioDTO> comments) {
     return new PostDTO(
         post.getId(),
         post.getTitle(),
@@ -171,10 +342,8 @@ public ResponseEntity<PostDTO> createPost(@RequestBody Post post, HttpServletReq
             post.getAuthor().getAvatarUrl()
         ),
         post.getContent() != null ? post.getContent().toString() : null,
-        comentarioRepository.findByPostAndParentIsNull(post)
-            .stream()
-            .map(this::toDTO)
-            .toList()
+        post.getCommentCount() != null ? post.getCommentCount() : 0,
+        comments
     );
 }
 
@@ -186,28 +355,21 @@ public ResponseEntity<PostDTO> createPost(@RequestBody Post post, HttpServletReq
      *
      * @param commentId ID do comentário ao qual a resposta será vinculada
      * @param reply     objeto Comentario contendo os dados da resposta
-     * @param req       objeto HttpServletRequest usado para extrair o token JWT
      * @return ResponseEntity com status 200 e o comentário resposta salvo
      * @throws RuntimeException se o comentário pai não for encontrado
      */
 
     @PostMapping("/comment/{commentId}/reply")
 public ResponseEntity<ComentarioDTO> createCommentReply(@PathVariable Long commentId,
-        @RequestBody Comentario reply,
-        HttpServletRequest req) {
+        @RequestBody Comentario reply) {
 
     Comentario parentComment = comentarioRepository.findById(commentId)
             .orElseThrow(() -> new NotFout("Comentário não encontrado"));
 
-    Long userId = jwtService.parseSubject(req.getHeader("Authorization").substring(7));
+    Long userId = jwtService.currentClaims().userId();
     User autor = userRepository.findById(userId).orElseThrow();
 
-    reply.setPost(parentComment.getPost());
-    reply.setParent(parentComment);
-    reply.setAutor(autor);
-    reply.setDataCriacao(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-
-    Comentario saved = comentarioRepository.save(reply);
+    Comentario saved = comentarioService.responder(parentComment, autor, reply);
     return ResponseEntity.ok(toDTO(saved));
 }
 
@@ -220,7 +382,6 @@ public ResponseEntity<ComentarioDTO> createCommentReply(@PathVariable Long comme
      *
      * @param commentId ID do comentário a ser editado
      * @param newText   novo texto que substituirá o conteúdo do comentário
-     * @param req       objeto HttpServletRequest usado para extrair o token JWT
      * @return ResponseEntity com status 200 e o comentário atualizado se a edição
      *         for bem-sucedida;
      *         ResponseEntity com status 403 se o usuário não for o autor
@@ -228,21 +389,17 @@ public ResponseEntity<ComentarioDTO> createCommentReply(@PathVariable Long comme
      */
     @PostMapping("/comment/{commentId}/edit")
 public ResponseEntity<ComentarioDTO> editComment(@PathVariable Long commentId,
-        @RequestBody String newText,
-        HttpServletRequest req) {
+        @RequestBody String newText) {
 
     Comentario comment = comentarioRepository.findById(commentId)
             .orElseThrow(() -> new NotFout("Comentário não encontrado"));
 
-    Long userId = jwtService.parseSubject(req.getHeader("Authorization").substring(7));
+    Long userId = jwtService.currentClaims().userId();
     if (!comment.getAutor().getId().equals(userId)) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
     }
 
-    comment.setTexto(newText);
-    comment.setModificado(true);
-
-    Comentario saved = comentarioRepository.save(comment);
+    Comentario saved = comentarioService.editar(comment, newText);
     return ResponseEntity.ok(toDTO(saved));
 }
 
@@ -251,22 +408,105 @@ public ResponseEntity<ComentarioDTO> editComment(@PathVariable Long commentId,
      * Endpoint para listar todos os comentários de um post específico.
      *
      * Recebe o ID de um post e retorna todos os comentários associados a ele.
+     * Assim como em GET /api/blog/{postId}, responde com ETag e devolve 304
+     * sem carregar os comentários quando o If-None-Match ainda é válido.
      *
-     * @param PostId ID do post cujos comentários devem ser listados
-     * @return ResponseEntity com status 200 e a lista de comentários do post
-     * @throws RuntimeException se o post não for encontrado
+     * @param postId     ID do post cujos comentários devem ser listados
+     * @param webRequest requisição usada para avaliar o If-None-Match
+     * @return ResponseEntity com status 200 e a lista de comentários do post,
+     *         ou 304 se não houve alteração
+     * @throws NotFout se o post não for encontrado
      */
     @GetMapping("/comment/{postId}/all")
-    public List<ComentarioDTO> getAll(@PathVariable Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow();
+    public ResponseEntity<List<ComentarioDTO>> getAll(@PathVariable Long postId, WebRequest webRequest) {
+        String etag = etag(postId, findPostVersion(postId));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(comentarioTreeService.loadTree(postId));
+    }
+
+    /**
+     * Endpoint para listar, por cursor, os comentários raiz de um post.
+     *
+     * Cada comentário vem sem as respostas aninhadas, apenas com a quantidade
+     * de respostas diretas. As respostas são carregadas sob demanda em
+     * GET /api/blog/comment/{commentId}/replies.
+     *
+     * @param postId ID do post
+     * @param after  cursor opaco devolvido pela página anterior (ausente na primeira página)
+     * @param limit  quantidade de comentários por página (padrão 20)
+     * @return ResponseEntity com status 200, os comentários da página e o cursor da próxima
+     * @throws Invalid se o cursor ou o limite forem inválidos
+     */
+    @GetMapping("/comment/{postId}/top")
+    public ResponseEntity<CursorPageDTO<ComentarioResumoDTO>> getTopLevelComments(@PathVariable Long postId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        checkCursorLimit(limit);
+        return ResponseEntity.ok(toCommentPage(
+            comentarioRepository.findTopLevelPage(postId, after == null ? 0L : decodeCursor(after), Limit.of(limit + 1)),
+            limit
+        ));
+    }
 
-        return comentarioRepository
-                .findByPostAndParentIsNull(post)
-                .stream()
-                .map(this:: toDTO)
-                .toList();
+    /**
+     * Endpoint para listar, por cursor, as respostas diretas de um comentário.
+     *
+     * Assim como nos comentários raiz, cada resposta traz apenas a quantidade
+     * das suas próprias respostas, permitindo expandir a thread nível a nível.
+     *
+     * @param commentId ID do comentário pai
+     * @param after     cursor opaco devolvido pela página anterior (ausente na primeira página)
+     * @param limit     quantidade de respostas por página (padrão 20)
+     * @return ResponseEntity com status 200, as respostas da página e o cursor da próxima
+     * @throws Invalid se o cursor ou o limite forem inválidos
+     */
+    @GetMapping("/comment/{commentId}/replies")
+    public ResponseEntity<CursorPageDTO<ComentarioResumoDTO>> getReplies(@PathVariable Long commentId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        checkCursorLimit(limit);
+        return ResponseEntity.ok(toCommentPage(
+            comentarioRepository.findRepliesPage(commentId, after == null ? 0L : decodeCursor(after), Limit.of(limit + 1)),
+            limit
+        ));
     }
+
+    /**
+     * Endpoint para carregar a subárvore de um comentário.
+     *
+     * Busca o comentário e todos os seus descendentes, até a profundidade pedida,
+     * em uma única consulta pelo caminho materializado, e devolve a árvore montada.
+     *
+     * @param commentId ID do comentário raiz da subárvore
+     * @param maxDepth  quantidade máxima de níveis abaixo do comentário (padrão 5)
+     * @return ResponseEntity com status 200 e o comentário com as respostas aninhadas
+     * @throws NotFout se o comentário não for encontrado
+     * @throws Invalid se a profundidade pedida for inválida
+     */
+    @GetMapping("/comment/{commentId}/subtree")
+    public ResponseEntity<ComentarioDTO> getSubtree(@PathVariable Long commentId,
+            @RequestParam(defaultValue = "5") int maxDepth) {
+        if (maxDepth < 0 || maxDepth > ComentarioService.MAX_DEPTH) {
+            throw new Invalid("A profundidade deve estar entre 0 e " + ComentarioService.MAX_DEPTH);
+        }
+        Comentario root = comentarioRepository.findById(commentId)
+                .orElseThrow(() -> new NotFout("Comentário não encontrado"));
+        return ResponseEntity.ok(comentarioTreeService.loadSubtree(root, maxDepth));
+    }
+
+    /** Corta a lista (buscada com limit + 1) na página pedida e gera o cursor da próxima. */
+    private CursorPageDTO<ComentarioResumoDTO> toCommentPage(List<ComentarioResumoDTO> comments, int limit) {
+        String nextCursor = null;
+        if (comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            nextCursor = encodeCursor(comments.get(limit - 1).id());
+        }
+        return new CursorPageDTO<>(comments, nextCursor);
+    }
+
     private ComentarioDTO toDTO(Comentario c) {
     return new ComentarioDTO(
         c.getId(),
@@ -278,6 +518,7 @@ public ResponseEntity<ComentarioDTO> editComment(@PathVariable Long commentId,
         ),
         c.getDataCriacao(),
         c.getModificado(),
+        c.getReplyCount() != null ? c.getReplyCount() : 0,
         c.getRespostas()
             .stream()
             .map(this::toDTO)
@@ -293,25 +534,23 @@ public ResponseEntity<ComentarioDTO> editComment(@PathVariable Long commentId,
      * pode realizar a exclusão.
      *
      * @param commentId ID do comentário a ser deletado
-     * @param req       objeto HttpServletRequest usado para extrair o token JWT
      * @return ResponseEntity com status 200 e mensagem de sucesso se o comentário
      *         for deletado;
      *         ResponseEntity com status 403 se o usuário não for o autor
      * @throws RuntimeException se o comentário não for encontrado
      */
     @DeleteMapping("/comment/{commentId}/delete")
-    public ResponseEntity<String> deleteComment(@PathVariable Long commentId,
-            HttpServletRequest req) {
+    public ResponseEntity<String> deleteComment(@PathVariable Long commentId) {
 
         Comentario comment = comentarioRepository.findById(commentId)
                 .orElseThrow(() -> new NotFout("Comentário não encontrado"));
 
-        Long userId = jwtService.parseSubject(req.getHeader("Authorization").substring(7));
+        Long userId = jwtService.currentClaims().userId();
         if (!comment.getAutor().getId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Acesso negado");
         }
 
-        comentarioRepository.delete(comment);
+        comentarioService.excluir(comment);
 
         return ResponseEntity.ok("Comentário deletado com sucesso");
     }
@@ -323,7 +562,6 @@ public ResponseEntity<ComentarioDTO> editComment(@PathVariable Long commentId,
      * Apenas o autor do post pode realizar a exclusão.
      *
      * @param postId ID do post a ser deletado
-     * @param req    objeto HttpServletRequest usado para extrair o token JWT
      * @return ResponseEntity com status 200 e mensagem de sucesso se o post for
      *         deletado
      * @throws RuntimeException se o token estiver ausente, se o usuário não for
@@ -332,27 +570,19 @@ public ResponseEntity<ComentarioDTO> editComment(@PathVariable Long commentId,
      *                          autor
      */
     @DeleteMapping("/{postId}/delete")
-    public ResponseEntity<String> deletePost(@PathVariable Long postId,
-            HttpServletRequest req) {
-
-        String header = req.getHeader("Authorization");
-        if (header == null || !header.startsWith("Bearer ")) {
-            throw new Invalid("Token ausente");
-        }
-
-        if (!Role.ADMIN.name().equals(jwtService.parseRole(header.substring(7)))) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Acesso negado");
-        }
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> deletePost(@PathVariable Long postId) {
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new NotFout("Post não encontrado"));
 
-        Long userId = jwtService.parseSubject(req.getHeader("Authorization").substring(7));
-        if (!post.getAuthor().getId().equals(userId)) {
+        if (!post.getAuthor().getId().equals(jwtService.currentClaims().userId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Acesso negado");
         }
 
         postRepository.delete(post);
+        postCache.invalidate(postId);
+        searchIndex.removePost(postId);
 
         return ResponseEntity.ok("Post deletado com sucesso");
     }
@@ -3,7 +3,6 @@ package com.blog.eu.controller;
 
 
 
-import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -50,79 +49,70 @@ public class ProfileController {
     }
 
     /**
-     * Obtém o ID do usuário autenticado a partir do token JWT presente no cabeçalho Authorization.
+     * Obtém o ID do usuário autenticado a partir das claims do token JWT,
+     * já verificadas pelo filtro de autenticação.
      *
-     * @param req objeto HttpServletRequest contendo os detalhes da requisição
      * @return identificador único do usuário autenticado
      * @throws RuntimeException se o token estiver ausente ou inválido
      */
-    private Long userId(HttpServletRequest req) {
-        String header = req.getHeader("Authorization");
-        if (header == null || !header.startsWith("Bearer ")) throw new RuntimeException("Token ausente");
-        return jwtService.parseSubject(header.substring(7));
+    private Long userId() {
+        return jwtService.currentClaims().userId();
     }
 
     /**
      * Endpoint GET para obter informações do perfil do usuário autenticado.
      *
-     * @param req objeto HttpServletRequest usado para validar o acesso
      * @return objeto User representando o perfil do usuário
      */
     @GetMapping("/me")
-    public User getMe(HttpServletRequest req) {
-        return profileService.getMe(userId(req));
+    public User getMe() {
+        return profileService.getMe(userId());
     }
 
     /**
      * Endpoint PUT para atualizar informações do perfil do usuário autenticado.
      *
-     * @param req objeto HttpServletRequest usado para validar o acesso
      * @param dto objeto UpdateProfileDto contendo os novos dados do perfil
      * @return objeto User atualizado
      */
     @PutMapping("/me")
-    public User updateMe(HttpServletRequest req, @Validated @RequestBody UpdateProfileDto dto) {
-        return profileService.updateMe(userId(req), dto.getDisplayName(), dto.getBio(), dto.getLocation(), dto.getWebsite());
+    public User updateMe(@Validated @RequestBody UpdateProfileDto dto) {
+        return profileService.updateMe(userId(), dto.getDisplayName(), dto.getBio(), dto.getLocation(), dto.getWebsite());
     }
 
     /**
      * Endpoint POST para fazer upload de uma foto de perfil ou avatar.
      *
-     * @param req objeto HttpServletRequest usado para validar o acesso
      * @param photo arquivo MultipartFile representando a foto enviada
      * @param isAvatar indica se a foto enviada deve ser definida como avatar
      * @return objeto User atualizado com a nova foto
      * @throws Exception se ocorrer erro no upload
      */
     @PostMapping("/me/photo")
-    public User uploadPhoto(HttpServletRequest req,
-                            @RequestParam("photo") MultipartFile photo,
+    public User uploadPhoto(@RequestParam("photo") MultipartFile photo,
                             @RequestParam(value = "isAvatar", defaultValue = "false") boolean isAvatar) throws Exception {
-        return profileService.uploadPhoto(userId(req), photo, isAvatar);
+        return profileService.uploadPhoto(userId(), photo, isAvatar);
     }
 
     /**
      * Endpoint POST para definir uma foto existente como avatar do usuário.
      *
-     * @param req objeto HttpServletRequest usado para validar o acesso
      * @param key chave identificadora da foto armazenada
      * @return objeto User atualizado com o novo avatar
      */
     @PostMapping("/me/avatar")
-    public User setAvatar(HttpServletRequest req, @RequestParam("key") String key) {
-        return profileService.setAvatar(userId(req), key);
+    public User setAvatar(@RequestParam("key") String key) {
+        return profileService.setAvatar(userId(), key);
     }
 
     /**
      * Endpoint DELETE para remover uma foto associada ao perfil do usuário.
      *
-     * @param req objeto HttpServletRequest usado para validar o acesso
-     * @param key chave identificadora da foto a ser removida
      * @return objeto User atualizado após a exclusão da foto
      */
     @DeleteMapping("/me/photo")
-public User deletePhoto(HttpServletRequest req) {
-    return profileService.deletePhoto(userId(req));
+public User deletePhoto() {
+    return profileService.deletePhoto(userId());
 }
 
 }
@@ -0,0 +1,33 @@
+package com.blog.eu.dto;
+
+import com.blog.eu.cache.TtlCache;
+
+/**
+ * Estatísticas de um {@link TtlCache} expostas nos endpoints administrativos.
+ *
+ * @author Luis
+ */
+public record CacheStatsDTO(
+    int size,
+    int maxSize,
+    long hits,
+    long misses,
+    long evictions,
+    double hitRate
+) {
+
+    /** Monta as estatísticas a partir do estado atual do cache. */
+    public static CacheStatsDTO of(TtlCache<?, ?> cache) {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long total = hits + misses;
+        return new CacheStatsDTO(
+            cache.size(),
+            cache.getMaxSize(),
+            hits,
+            misses,
+            cache.getEvictions(),
+            total == 0 ? 0.0 : (double) hits / total
+        );
+    }
+}
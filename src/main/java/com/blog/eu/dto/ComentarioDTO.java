@@ -8,5 +8,6 @@ public record ComentarioDTO(
     AuthorDTO autor,
     String dataCriacao,
     Boolean modificado,
+    long replyCount,
     List<ComentarioDTO> respostas
 ) {}
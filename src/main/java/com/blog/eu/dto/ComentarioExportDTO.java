@@ -0,0 +1,16 @@
+package com.blog.eu.dto;
+
+/**
+ * Comentário no export do blog, com referências ao post, ao pai e ao autor apenas pelo id.
+ *
+ * @author Luis
+ */
+public record ComentarioExportDTO(
+    Long id,
+    Long postId,
+    Long parentId,
+    Long autorId,
+    String texto,
+    String dataCriacao,
+    Boolean modificado
+) {}
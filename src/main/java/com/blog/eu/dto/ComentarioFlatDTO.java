@@ -0,0 +1,23 @@
+package com.blog.eu.dto;
+
+/**
+ * Linha "achatada" de um comentário, carregada por projeção direta no
+ * {@link com.blog.eu.repo.ComentarioRepository} sem instanciar entidades.
+ *
+ * Contém apenas o necessário para montar a árvore de {@link ComentarioDTO}
+ * em memória: o id do post e o id do comentário pai.
+ *
+ * @author Luis
+ */
+public record ComentarioFlatDTO(
+    Long id,
+    Long postId,
+    Long parentId,
+    String texto,
+    String dataCriacao,
+    Boolean modificado,
+    Integer replyCount,
+    Long autorId,
+    String autorNome,
+    String autorAvatarUrl
+) {}
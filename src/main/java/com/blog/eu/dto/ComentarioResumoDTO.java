@@ -0,0 +1,27 @@
+package com.blog.eu.dto;
+
+/**
+ * Comentário sem as respostas aninhadas, usado nas listagens paginadas de threads.
+ *
+ * Em vez da lista de respostas, traz apenas a quantidade de respostas diretas,
+ * para que o cliente decida se e quando expandir o nó.
+ *
+ * @author Luis
+ */
+public record ComentarioResumoDTO(
+    Long id,
+    String texto,
+    AuthorDTO autor,
+    String dataCriacao,
+    Boolean modificado,
+    long replyCount
+) {
+
+    /** Construtor usado pela projeção JPQL do {@link com.blog.eu.repo.ComentarioRepository}. */
+    public ComentarioResumoDTO(Long id, String texto, String dataCriacao, Boolean modificado,
+                               Long autorId, String autorNome, String autorAvatarUrl,
+                               Integer replyCount) {
+        this(id, texto, new AuthorDTO(autorId, autorNome, autorAvatarUrl), dataCriacao, modificado,
+             replyCount != null ? replyCount : 0L);
+    }
+}
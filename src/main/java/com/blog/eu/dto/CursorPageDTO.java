@@ -0,0 +1,18 @@
+package com.blog.eu.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de uma listagem por cursor (keyset pagination).
+ *
+ * O campo nextCursor é opaco para o cliente: basta enviá-lo de volta no
+ * parâmetro "after" para obter a próxima página. Quando for null, não há
+ * mais resultados.
+ *
+ * @param <T> tipo dos itens da página
+ * @author Luis
+ */
+public record CursorPageDTO<T>(
+    List<T> items,
+    String nextCursor
+) {}
@@ -0,0 +1,13 @@
+package com.blog.eu.dto;
+
+/**
+ * Linha do export NDJSON do blog: o tipo do registro e seus dados.
+ *
+ * @param type "user", "post" ou "comment"
+ * @param data dados do registro
+ * @author Luis
+ */
+public record ExportLineDTO(
+    String type,
+    Object data
+) {}
@@ -0,0 +1,17 @@
+package com.blog.eu.dto;
+
+/**
+ * Resultado de uma linha da importação em massa de usuários.
+ *
+ * @param line    número da linha na entrada (a partir de 1, sem contar o cabeçalho do CSV)
+ * @param email   email informado na linha
+ * @param status  CRIADO, DUPLICADO, INVALIDO, ERRO ou LIMITE (linhas além do limite da importação)
+ * @param message detalhe do erro, quando houver
+ * @author Luis
+ */
+public record ImportResultDTO(
+    long line,
+    String email,
+    String status,
+    String message
+) {}
@@ -0,0 +1,21 @@
+package com.blog.eu.dto;
+
+/**
+ * Resumo da importação em massa, escrito como última linha do relatório.
+ *
+ * @param total      linhas lidas
+ * @param created    usuários criados
+ * @param duplicates emails já cadastrados ou repetidos na entrada
+ * @param invalid    linhas inválidas
+ * @param errors     linhas que falharam ao inserir
+ * @param elapsedMs  duração da importação, em milissegundos
+ * @author Luis
+ */
+public record ImportSummaryDTO(
+    long total,
+    long created,
+    long duplicates,
+    long invalid,
+    long errors,
+    long elapsedMs
+) {}
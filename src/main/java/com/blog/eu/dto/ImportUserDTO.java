@@ -0,0 +1,17 @@
+package com.blog.eu.dto;
+
+/**
+ * Linha de entrada da importação em massa de usuários (CSV ou NDJSON).
+ *
+ * @param email       email do usuário (obrigatório, único)
+ * @param password    senha em texto puro (obrigatória)
+ * @param displayName nome de exibição (padrão: parte local do email)
+ * @param role        role do usuário (padrão USER)
+ * @author Luis
+ */
+public record ImportUserDTO(
+    String email,
+    String password,
+    String displayName,
+    String role
+) {}
@@ -0,0 +1,18 @@
+package com.blog.eu.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Latências por rota em um intervalo de tempo.
+ *
+ * @param start  início do intervalo
+ * @param end    fim do intervalo (null se ainda em andamento)
+ * @param routes latências por rota, da maior p99 para a menor
+ * @author Luis
+ */
+public record LatencyReportDTO(
+    Instant start,
+    Instant end,
+    List<RouteLatencyDTO> routes
+) {}
@@ -0,0 +1,20 @@
+package com.blog.eu.dto;
+
+import com.blog.eu.model.Role;
+
+/**
+ * Dados de um usuário usados no login social (OAuth2): o suficiente para
+ * comparar com os atributos do provedor e gerar o token JWT.
+ *
+ * @param id          id do usuário
+ * @param displayName nome de exibição gravado
+ * @param avatarUrl   URL do avatar gravada
+ * @param role        role do usuário
+ * @author Luis
+ */
+public record OAuthUserSnapshotDTO(
+    Long id,
+    String displayName,
+    String avatarUrl,
+    Role role
+) {}
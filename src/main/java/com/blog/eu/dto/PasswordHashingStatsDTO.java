@@ -0,0 +1,42 @@
+package com.blog.eu.dto;
+
+/**
+ * Métricas dos pools de hashing de senhas expostas nos endpoints administrativos:
+ * o pool dos logins e o pool de importação em massa (campos bulk*).
+ *
+ * @param bcryptCost    custo do BCrypt em uso (calibrado ao iniciar)
+ * @param poolSize      quantidade de threads do pool
+ * @param activeThreads threads calculando hashes no momento
+ * @param queueDepth    tarefas aguardando na fila
+ * @param queueCapacity tamanho máximo da fila
+ * @param completed     hashes concluídos
+ * @param rejected      tarefas recusadas por pool saturado (503)
+ * @param avgWaitMs     tempo médio na fila, em milissegundos
+ * @param avgHashMs     tempo médio de cálculo do hash, em milissegundos
+ * @param maxHashMs     maior tempo de cálculo do hash, em milissegundos
+ * @param bulkPoolSize      threads do pool de importação
+ * @param bulkActiveThreads threads do pool de importação ocupadas no momento
+ * @param bulkQueued        tarefas aguardando no pool de importação
+ * @param bulkCompleted     hashes concluídos pelo pool de importação
+ * @param bulkAvgHashMs     tempo médio de um hash no pool de importação, em milissegundos
+ * @param bulkSteals        tarefas roubadas entre as threads do pool de importação
+ * @author Luis
+ */
+public record PasswordHashingStatsDTO(
+    int bcryptCost,
+    int poolSize,
+    int activeThreads,
+    int queueDepth,
+    int queueCapacity,
+    long completed,
+    long rejected,
+    double avgWaitMs,
+    double avgHashMs,
+    double maxHashMs,
+    int bulkPoolSize,
+    int bulkActiveThreads,
+    long bulkQueued,
+    long bulkCompleted,
+    double bulkAvgHashMs,
+    long bulkSteals
+) {}
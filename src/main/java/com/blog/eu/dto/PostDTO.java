@@ -8,5 +8,6 @@ public record PostDTO(
     String content,
     AuthorDTO author,
     String createdAt,
+    long commentCount,
     List<ComentarioDTO> comments
 ) {}
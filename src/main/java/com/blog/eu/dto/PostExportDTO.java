@@ -0,0 +1,15 @@
+package com.blog.eu.dto;
+
+/**
+ * Post no export do blog, com referência ao autor apenas pelo id.
+ *
+ * @author Luis
+ */
+public record PostExportDTO(
+    Long id,
+    String title,
+    String content,
+    Long authorId,
+    Integer commentCount,
+    Long version
+) {}
@@ -0,0 +1,26 @@
+package com.blog.eu.dto;
+
+/**
+ * Resumo de um post para listagens (feed, índice).
+ *
+ * Não carrega o conteúdo completo nem a árvore de comentários: apenas um
+ * trecho limitado do conteúdo e a quantidade de comentários.
+ *
+ * @author Luis
+ */
+public record PostSummaryDTO(
+    Long id,
+    String title,
+    String excerpt,
+    AuthorDTO author,
+    long commentCount
+) {
+
+    /** Construtor usado pela projeção JPQL do {@link com.blog.eu.repo.PostRepository}. */
+    public PostSummaryDTO(Long id, String title, String excerpt,
+                          Long authorId, String authorName, String authorAvatarUrl,
+                          Integer commentCount) {
+        this(id, title, excerpt, new AuthorDTO(authorId, authorName, authorAvatarUrl),
+             commentCount != null ? commentCount : 0L);
+    }
+}
@@ -0,0 +1,12 @@
+package com.blog.eu.dto;
+
+/**
+ * Título e conteúdo de um post, carregados por projeção para a indexação da busca.
+ *
+ * @author Luis
+ */
+public record PostTextDTO(
+    Long id,
+    String title,
+    String content
+) {}
@@ -0,0 +1,17 @@
+package com.blog.eu.dto;
+
+/**
+ * Requisições e erros em uma janela de tempo.
+ *
+ * @param requests  requisições na janela
+ * @param perSecond média de requisições por segundo
+ * @param errors    respostas 5xx na janela
+ * @param errorRate fração das requisições que terminaram em 5xx
+ * @author Luis
+ */
+public record RateWindowDTO(
+    long requests,
+    double perSecond,
+    long errors,
+    double errorRate
+) {}
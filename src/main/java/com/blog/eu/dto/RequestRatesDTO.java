@@ -0,0 +1,20 @@
+package com.blog.eu.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Taxas de requisições no momento da consulta.
+ *
+ * @param at       momento da consulta
+ * @param inFlight requisições em andamento
+ * @param total    taxas somando todas as rotas
+ * @param routes   taxas por rota
+ * @author Luis
+ */
+public record RequestRatesDTO(
+    Instant at,
+    long inFlight,
+    RouteRateDTO total,
+    List<RouteRateDTO> routes
+) {}
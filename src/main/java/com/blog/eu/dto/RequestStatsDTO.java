@@ -0,0 +1,18 @@
+package com.blog.eu.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Requisições de um dia, no total e por rota.
+ *
+ * @param day    dia das contagens
+ * @param total  total de requisições no dia
+ * @param routes contagem por rota, da mais acessada para a menos acessada
+ * @author Luis
+ */
+public record RequestStatsDTO(
+    LocalDate day,
+    long total,
+    List<RouteCountDTO> routes
+) {}
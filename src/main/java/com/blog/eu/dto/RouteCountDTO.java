@@ -0,0 +1,23 @@
+package com.blog.eu.dto;
+
+/**
+ * Contagem de requisições de uma rota no dia, por classe de status HTTP.
+ *
+ * @param route rota (método e padrão, ex.: "GET /api/blog/{postId}")
+ * @param total total de requisições da rota
+ * @param s1xx  respostas 1xx
+ * @param s2xx  respostas 2xx
+ * @param s3xx  respostas 3xx
+ * @param s4xx  respostas 4xx
+ * @param s5xx  respostas 5xx
+ * @author Luis
+ */
+public record RouteCountDTO(
+    String route,
+    long total,
+    long s1xx,
+    long s2xx,
+    long s3xx,
+    long s4xx,
+    long s5xx
+) {}
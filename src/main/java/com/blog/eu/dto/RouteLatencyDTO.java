@@ -0,0 +1,23 @@
+package com.blog.eu.dto;
+
+/**
+ * Percentis de latência de uma rota em um intervalo, em milissegundos.
+ *
+ * @param route  rota (método e padrão, ex.: "GET /api/blog/{postId}")
+ * @param count  requisições no intervalo
+ * @param p50Ms  mediana
+ * @param p90Ms  percentil 90
+ * @param p99Ms  percentil 99
+ * @param p999Ms percentil 99,9
+ * @param maxMs  maior latência
+ * @author Luis
+ */
+public record RouteLatencyDTO(
+    String route,
+    long count,
+    double p50Ms,
+    double p90Ms,
+    double p99Ms,
+    double p999Ms,
+    double maxMs
+) {}
@@ -0,0 +1,17 @@
+package com.blog.eu.dto;
+
+/**
+ * Taxas de uma rota nas janelas de 1 minuto, 5 minutos e 1 hora.
+ *
+ * @param route           rota (método e padrão), ou "*" para o total
+ * @param lastMinute      último minuto
+ * @param lastFiveMinutes últimos 5 minutos
+ * @param lastHour        última hora
+ * @author Luis
+ */
+public record RouteRateDTO(
+    String route,
+    RateWindowDTO lastMinute,
+    RateWindowDTO lastFiveMinutes,
+    RateWindowDTO lastHour
+) {}
@@ -0,0 +1,23 @@
+package com.blog.eu.dto;
+
+/**
+ * Comandos SQL por requisição de uma rota.
+ *
+ * @param route         rota (método e padrão)
+ * @param requests      requisições contadas
+ * @param statements    total de comandos SQL
+ * @param avgStatements média de comandos por requisição
+ * @param maxStatements maior quantidade de comandos em uma requisição
+ * @param avgDbMs       tempo médio no banco por requisição, em milissegundos
+ * @param overBudget    requisições acima do orçamento de comandos
+ * @author Luis
+ */
+public record RouteSqlStatsDTO(
+    String route,
+    long requests,
+    long statements,
+    double avgStatements,
+    long maxStatements,
+    double avgDbMs,
+    long overBudget
+) {}
@@ -0,0 +1,21 @@
+package com.blog.eu.dto;
+
+/**
+ * Resultado individual da busca textual.
+ *
+ * @param tipo    "POST" ou "COMENTARIO"
+ * @param id      id do post ou do comentário encontrado
+ * @param postId  id do post (o próprio id, quando o resultado é um post)
+ * @param title   título do post relacionado
+ * @param snippet trecho do texto em torno do primeiro termo encontrado
+ * @param score   relevância do resultado (maior é melhor)
+ * @author Luis
+ */
+public record SearchHitDTO(
+    String tipo,
+    Long id,
+    Long postId,
+    String title,
+    String snippet,
+    double score
+) {}
@@ -0,0 +1,24 @@
+package com.blog.eu.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados da busca textual, ordenada por relevância.
+ *
+ * @param query      texto da consulta
+ * @param total      quantidade total de resultados
+ * @param page       número da página (a partir de 0)
+ * @param size       quantidade de resultados por página
+ * @param indexReady false enquanto a reconstrução inicial do índice não terminou
+ *                   (os resultados podem estar incompletos)
+ * @param hits       resultados da página
+ * @author Luis
+ */
+public record SearchResultsDTO(
+    String query,
+    long total,
+    int page,
+    int size,
+    boolean indexReady,
+    List<SearchHitDTO> hits
+) {}
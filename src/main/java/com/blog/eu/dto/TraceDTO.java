@@ -0,0 +1,26 @@
+package com.blog.eu.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Rastro completo de uma requisição amostrada.
+ *
+ * @param traceId      id do rastro (também devolvido no cabeçalho X-Trace-Id)
+ * @param route        rota (método e padrão)
+ * @param status       status HTTP da resposta
+ * @param startedAt    início da requisição
+ * @param durationMs   duração total, em milissegundos
+ * @param droppedSpans trechos descartados por passar do limite por rastro
+ * @param spans        trechos, na ordem em que começaram
+ * @author Luis
+ */
+public record TraceDTO(
+    String traceId,
+    String route,
+    int status,
+    Instant startedAt,
+    double durationMs,
+    int droppedSpans,
+    List<TraceSpanDTO> spans
+) {}
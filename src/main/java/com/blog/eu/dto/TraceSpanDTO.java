@@ -0,0 +1,19 @@
+package com.blog.eu.dto;
+
+/**
+ * Trecho (span) de um rastro de requisição.
+ *
+ * @param kind       tipo do trecho (http, security, controller, repository, service, mail)
+ * @param name       nome do trecho (ex.: classe e método)
+ * @param depth      profundidade (0 = trecho mais externo)
+ * @param offsetMs   início, em milissegundos desde o início da requisição
+ * @param durationMs duração em milissegundos (-1 se não foi fechado)
+ * @author Luis
+ */
+public record TraceSpanDTO(
+    String kind,
+    String name,
+    int depth,
+    double offsetMs,
+    double durationMs
+) {}
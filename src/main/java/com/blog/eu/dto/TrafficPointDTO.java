@@ -0,0 +1,17 @@
+package com.blog.eu.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ponto de uma série histórica de tráfego.
+ *
+ * @param bucketStart início da hora ou do dia
+ * @param requests    requisições no período
+ * @param errors      respostas 5xx no período
+ * @author Luis
+ */
+public record TrafficPointDTO(
+    LocalDateTime bucketStart,
+    long requests,
+    long errors
+) {}
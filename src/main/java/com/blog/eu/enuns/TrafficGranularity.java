@@ -0,0 +1,6 @@
+package com.blog.eu.enuns;
+
+public enum TrafficGranularity {
+    HOUR,
+    DAY
+}
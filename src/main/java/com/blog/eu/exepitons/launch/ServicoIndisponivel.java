@@ -0,0 +1,8 @@
+package com.blog.eu.exepitons.launch;
+
+public class ServicoIndisponivel extends RuntimeException {
+    public ServicoIndisponivel(String message) {
+        super(message);
+    }
+
+}
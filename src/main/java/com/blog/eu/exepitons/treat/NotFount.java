@@ -4,12 +4,17 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.blog.eu.exepitons.launch.EmailjaEstaEmUso;
 import com.blog.eu.exepitons.launch.Invalid;
 import com.blog.eu.exepitons.launch.NotFout;
+import com.blog.eu.exepitons.launch.ServicoIndisponivel;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestControllerAdvice
 public class NotFount {
@@ -29,6 +34,25 @@ public class NotFount {
         map.put("Status", HttpStatus.BAD_REQUEST.value());
         return map;
     }
+    @ExceptionHandler(ServicoIndisponivel.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, ?> handleServicoIndisponivel(ServicoIndisponivel ex, HttpServletResponse response) {
+        response.setHeader("Retry-After", "1");
+        Map<String, Object> map = new HashMap<>();
+        map.put("Error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        map.put("Message", ex.getMessage());
+        map.put("Status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return map;
+    }
+    @ExceptionHandler(AccessDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public Map<String, ?> handleAccessDenied(AccessDeniedException ex) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("Error", HttpStatus.FORBIDDEN.getReasonPhrase());
+        map.put("Message", "Acesso negado");
+        map.put("Status", HttpStatus.FORBIDDEN.value());
+        return map;
+    }
     @ExceptionHandler(Exception.class)
     public Map<String, ?> handleException(Exception ex) {
         Map<String, Object> map = new HashMap<>();
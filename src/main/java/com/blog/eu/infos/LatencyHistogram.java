@@ -0,0 +1,101 @@
+package com.blog.eu.infos;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-linear de latências, sem locks e com memória fixa
+ * (no estilo do HdrHistogram).
+ *
+ * Os valores (em microssegundos) abaixo de 64 têm um bucket cada; acima
+ * disso, cada potência de 2 é dividida em 32 buckets lineares, o que dá um
+ * erro relativo de no máximo ~3% em qualquer faixa. Valores acima de
+ * {@link #MAX_VALUE} (~12 dias) são contados no último bucket.
+ *
+ * Cada gravação é um incremento atômico em um {@link AtomicLongArray};
+ * os percentis são calculados percorrendo os buckets na leitura.
+ *
+ * @author Luis
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int MAX_EXPONENT = 39;
+
+    /** Maior valor representado com precisão, em microssegundos */
+    public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra um valor.
+     *
+     * @param micros latência em microssegundos
+     */
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(index(value));
+        total.incrementAndGet();
+        if (micros > max.get()) {
+            max.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    /** @return quantidade de valores registrados */
+    public long getCount() {
+        return total.get();
+    }
+
+    /** @return maior valor registrado, em microssegundos */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Calcula o percentil informado.
+     *
+     * @param percentile percentil entre 0 e 100 (ex.: 99.9)
+     * @return limite superior do bucket do percentil, em microssegundos (0 se vazio)
+     */
+    public long percentile(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /** Índice do bucket do valor (0 <= value <= MAX_VALUE). */
+    static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - 5;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /** Maior valor que cai no bucket informado. */
+    static long highestValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int k = index - LINEAR;
+        int shift = k / SUB_BUCKETS + 1;
+        long sub = k % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
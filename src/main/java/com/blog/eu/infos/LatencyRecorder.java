@@ -0,0 +1,96 @@
+package com.blog.eu.infos;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.blog.eu.dto.LatencyReportDTO;
+import com.blog.eu.dto.RouteLatencyDTO;
+
+/**
+ * Latência das requisições por rota, em intervalos de tempo.
+ *
+ * Cada rota tem um {@link LatencyHistogram} por intervalo. Ao fim de cada
+ * intervalo (app.metrics.latency.interval-ms, padrão 60000) o conjunto atual
+ * é trocado por um novo com uma única escrita atômica; o anterior fica
+ * disponível para consulta até a próxima troca. A memória é limitada pela
+ * quantidade de rotas (padrões dos controladores, no máximo
+ * app.metrics.max-routes), não pelas requisições.
+ *
+ * @author Luis
+ * @see com.blog.eu.admin.utils.RequestCounterFilter
+ */
+@Component
+public class LatencyRecorder {
+
+    /** Histogramas de um intervalo */
+    private record Interval(Instant start, ConcurrentHashMap<String, LatencyHistogram> routes) {}
+
+    private final AtomicReference<Interval> current = new AtomicReference<>(newInterval());
+    private volatile LatencyReportDTO previous;
+    private final int maxRoutes;
+
+    public LatencyRecorder(@Value("${app.metrics.max-routes:200}") int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    /**
+     * Registra a latência de uma requisição.
+     *
+     * @param route rota (método e padrão)
+     * @param nanos duração da requisição, em nanossegundos
+     */
+    public void record(String route, long nanos) {
+        LatencyHistogram histogram = RouteKeys.get(current.get().routes(), route, maxRoutes,
+                k -> new LatencyHistogram());
+        histogram.record(nanos / 1000);
+    }
+
+    /** Fecha o intervalo atual e começa um novo. */
+    @Scheduled(fixedRateString = "${app.metrics.latency.interval-ms:60000}",
+               initialDelayString = "${app.metrics.latency.interval-ms:60000}")
+    public void rotate() {
+        Interval closed = current.getAndSet(newInterval());
+        previous = toReport(closed, Instant.now());
+    }
+
+    /** @return latências do último intervalo completo, ou null antes da primeira troca */
+    public LatencyReportDTO getPrevious() {
+        return previous;
+    }
+
+    /** @return latências do intervalo em andamento */
+    public LatencyReportDTO getCurrent() {
+        return toReport(current.get(), null);
+    }
+
+    private static Interval newInterval() {
+        return new Interval(Instant.now(), new ConcurrentHashMap<>());
+    }
+
+    private static LatencyReportDTO toReport(Interval interval, Instant end) {
+        List<RouteLatencyDTO> routes = new ArrayList<>(interval.routes().size());
+        interval.routes().forEach((route, h) -> routes.add(new RouteLatencyDTO(
+            route,
+            h.getCount(),
+            millis(h.percentile(50)),
+            millis(h.percentile(90)),
+            millis(h.percentile(99)),
+            millis(h.percentile(99.9)),
+            millis(h.getMax())
+        )));
+        routes.sort(Comparator.comparingDouble(RouteLatencyDTO::p99Ms).reversed());
+        return new LatencyReportDTO(interval.start(), end, routes);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -1,60 +1,157 @@
 package com.blog.eu.infos;
 
 import java.time.LocalDate;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.blog.eu.dto.RequestStatsDTO;
+import com.blog.eu.dto.RouteCountDTO;
+
 /**
- * Componente responsável por contabilizar o número de requisições realizadas por dia.
+ * Componente responsável por contabilizar o número de requisições realizadas por dia,
+ * separadas por rota e por classe de status HTTP (2xx, 3xx, 4xx, 5xx).
+ *
+ * Cada contador é um {@link LongAdder}, que distribui os incrementos entre
+ * células internas: threads diferentes não disputam a mesma linha de cache.
+ *
+ * Os contadores do dia ficam em uma janela imutável quanto ao dia a que
+ * pertence. A virada do dia troca a janela atual por uma nova com
+ * compare-and-set em um {@link AtomicReference}: só uma thread cria a
+ * janela nova, nenhuma zera contadores em uso, e um incremento que ainda
+ * pegou a janela anterior é contado no dia anterior, nunca perdido.
  *
- * O contador é reiniciado automaticamente quando o dia muda, garantindo que os valores
- * sejam sempre referentes ao dia atual. Utiliza {@link AtomicInteger} para garantir
- * segurança em ambientes concorrentes.
+ * A quantidade de rotas por dia é limitada por app.metrics.max-routes
+ * (padrão 200); as excedentes são somadas em {@link RouteKeys#OVERFLOW}.
  *
  * Funcionalidades principais:
- * - Incrementar o contador de requisições
+ * - Registrar uma requisição com sua rota e status
  * - Obter o número atual de requisições realizadas no dia
- *
- * Este componente pode ser injetado em controladores ou serviços para monitorar
- * estatísticas de uso da aplicação.
+ * - Obter o detalhamento do dia por rota
  *
  * @author Luis
  */
 @Component
 public class RequestCounter {
 
-    /** Contador de requisições do dia atual */
-    private AtomicInteger counter = new AtomicInteger(0);
+    /** Índices dos contadores por classe de status */
+    private static final int OTHER = 0;
+
+    /** Contadores de um dia */
+    private record Window(LocalDate day, long endsAtMillis, LongAdder total,
+                          ConcurrentHashMap<String, LongAdder[]> routes) {
+
+        LongAdder[] route(String route, int maxRoutes) {
+            return RouteKeys.get(routes, route, maxRoutes, k -> newAdders());
+        }
+    }
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int maxRoutes;
 
-    /** Dia atual utilizado para validar e reiniciar o contador */
-    private LocalDate currentDay = LocalDate.now();
+    /** Janela do dia atual */
+    private final AtomicReference<Window> current = new AtomicReference<>(newWindow(LocalDate.now(zone)));
+
+    /** Janela do dia anterior, mantida após a virada */
+    private volatile Window previous;
+
+    public RequestCounter(@Value("${app.metrics.max-routes:200}") int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
 
     /**
-     * Incrementa o contador de requisições.
-     * Caso o dia tenha mudado, o contador é reiniciado antes de incrementar.
+     * Registra uma requisição.
+     *
+     * @param route  rota (método e padrão, ex.: "GET /api/blog/{postId}")
+     * @param status status HTTP da resposta
      */
-    public void increment() {
-        LocalDate today = LocalDate.now();
-        if (!today.equals(currentDay)) {
-            counter.set(0);
-            currentDay = today;
-        }
-        counter.incrementAndGet();
+    public void record(String route, int status) {
+        Window w = window();
+        w.total().increment();
+        w.route(route, maxRoutes)[statusClass(status)].increment();
     }
 
     /**
      * Obtém o número de requisições realizadas no dia atual.
-     * Caso o dia tenha mudado, o contador é reiniciado antes de retornar o valor.
      *
      * @return número de requisições realizadas no dia
      */
-    public int getCount() {
-        LocalDate today = LocalDate.now();
-        if (!today.equals(currentDay)) {
-            counter.set(0);
-            currentDay = today;
+    public long getCount() {
+        return window().total().sum();
+    }
+
+    /**
+     * Obtém o detalhamento das requisições do dia atual por rota,
+     * ordenado da rota mais acessada para a menos acessada.
+     *
+     * @return total do dia e contagem por rota e classe de status
+     */
+    public RequestStatsDTO getStats() {
+        return toStats(window());
+    }
+
+    /** @return detalhamento do dia anterior, ou null se a aplicação ainda não virou um dia */
+    public RequestStatsDTO getPreviousStats() {
+        Window w = previous;
+        return w == null ? null : toStats(w);
+    }
+
+    /** Classe do status: 1 = 1xx ... 5 = 5xx; 0 para valores fora da faixa */
+    static int statusClass(int status) {
+        int c = status / 100;
+        return c >= 1 && c <= 5 ? c : OTHER;
+    }
+
+    /** Janela do dia atual, fazendo a virada do dia se necessário. */
+    private Window window() {
+        Window w = current.get();
+        if (System.currentTimeMillis() < w.endsAtMillis()) {
+            return w;
         }
-        return counter.get();
+        LocalDate today = LocalDate.now(zone);
+        while (w.day().isBefore(today)) {
+            Window next = newWindow(today);
+            if (current.compareAndSet(w, next)) {
+                previous = w;
+                return next;
+            }
+            w = current.get();
+        }
+        return w;
+    }
+
+    private Window newWindow(LocalDate day) {
+        long endsAt = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Window(day, endsAt, new LongAdder(), new ConcurrentHashMap<>());
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[6];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static RequestStatsDTO toStats(Window w) {
+        List<RouteCountDTO> routes = new ArrayList<>(w.routes().size());
+        w.routes().forEach((route, adders) -> {
+            long[] c = new long[adders.length];
+            long total = 0;
+            for (int i = 0; i < adders.length; i++) {
+                c[i] = adders[i].sum();
+                total += c[i];
+            }
+            routes.add(new RouteCountDTO(route, total, c[1], c[2], c[3], c[4], c[5]));
+        });
+        routes.sort(Comparator.comparingLong(RouteCountDTO::total).reversed());
+        return new RequestStatsDTO(w.day(), w.total().sum(), routes);
     }
 }
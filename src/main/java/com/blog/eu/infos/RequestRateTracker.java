@@ -0,0 +1,107 @@
+package com.blog.eu.infos;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.blog.eu.dto.RateWindowDTO;
+import com.blog.eu.dto.RequestRatesDTO;
+import com.blog.eu.dto.RouteRateDTO;
+
+/**
+ * Taxa de requisições e de erros (5xx) nas últimas janelas de 1 minuto,
+ * 5 minutos e 1 hora, no total e por rota, além das requisições em andamento.
+ *
+ * Cada rota tem um {@link RollingCounter} com buckets por segundo (último
+ * minuto) e por minuto (última hora); a consulta soma os buckets da janela,
+ * no máximo 60 por janela, então o custo não depende do volume de
+ * requisições e o endpoint pode ser consultado a cada segundo. As janelas de
+ * 5 minutos e 1 hora cobrem os minutos completos mais recentes. As rotas
+ * ficam limitadas a app.metrics.max-routes (as excedentes vão para
+ * {@link RouteKeys#OVERFLOW}), já que o mapa não é limpo.
+ *
+ * @author Luis
+ * @see com.blog.eu.admin.utils.RequestCounterFilter
+ */
+@Component
+public class RequestRateTracker {
+
+    private static final String TOTAL = "*";
+
+    /** Origem dos segundos (o segundo 0 fica reservado para buckets vazios) */
+    private final long originMillis = System.currentTimeMillis() - 1000;
+
+    private final ConcurrentHashMap<String, RollingCounter> routes = new ConcurrentHashMap<>();
+    private final RollingCounter total = new RollingCounter();
+    private final LongAdder inFlight = new LongAdder();
+    private final int maxRoutes;
+
+    public RequestRateTracker(@Value("${app.metrics.max-routes:200}") int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    /** Marca o início de uma requisição. */
+    public void started() {
+        inFlight.increment();
+    }
+
+    /**
+     * Marca o fim de uma requisição.
+     *
+     * @param route  rota (método e padrão)
+     * @param status status HTTP da resposta
+     */
+    public void finished(String route, int status) {
+        inFlight.decrement();
+        long second = second();
+        boolean error = status >= 500;
+        total.record(second, error);
+        RouteKeys.get(routes, route, maxRoutes, k -> new RollingCounter()).record(second, error);
+    }
+
+    /**
+     * @return taxas das últimas janelas, no total e por rota (só rotas com
+     *         requisições na última hora), da rota mais acessada no último minuto
+     */
+    public RequestRatesDTO getRates() {
+        long now = second();
+        List<RouteRateDTO> list = new ArrayList<>(routes.size());
+        routes.forEach((route, counter) -> {
+            RouteRateDTO rates = toRates(route, counter, now);
+            if (rates.lastHour().requests() > 0) {
+                list.add(rates);
+            }
+        });
+        list.sort(Comparator.comparingLong((RouteRateDTO r) -> r.lastMinute().requests()).reversed());
+        return new RequestRatesDTO(Instant.now(), inFlight.sum(), toRates(TOTAL, total, now), list);
+    }
+
+    private long second() {
+        return (System.currentTimeMillis() - originMillis) / 1000;
+    }
+
+    private static RouteRateDTO toRates(String route, RollingCounter counter, long now) {
+        return new RouteRateDTO(
+            route,
+            window(counter, now, 60),
+            window(counter, now, 300),
+            window(counter, now, RollingCounter.SECONDS)
+        );
+    }
+
+    private static RateWindowDTO window(RollingCounter counter, long now, int seconds) {
+        long[] sum = counter.sum(now, seconds);
+        return new RateWindowDTO(
+            sum[0],
+            (double) sum[0] / seconds,
+            sum[1],
+            sum[0] == 0 ? 0.0 : (double) sum[1] / sum[0]
+        );
+    }
+}
@@ -0,0 +1,171 @@
+package com.blog.eu.infos;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.blog.eu.dto.TraceDTO;
+import com.blog.eu.dto.TraceSpanDTO;
+
+/**
+ * Rastro (trace) da requisição atual: uma lista de trechos (spans) com início,
+ * duração e profundidade, relativos ao início da requisição.
+ *
+ * Assim como o {@link SqlRequestContext}, o rastro fica em um {@link ThreadLocal}
+ * aberto e fechado pelo {@link com.blog.eu.admin.utils.TraceFilter}, e só é
+ * acessado pela thread da requisição. Fora de uma requisição amostrada não há
+ * rastro: {@link #span(String, String)} devolve um trecho vazio e o custo fica
+ * em uma leitura do ThreadLocal.
+ *
+ * Uso:
+ * <pre>
+ * try (RequestTrace.Span span = RequestTrace.span("mail", "EmailService.enviarHtml")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Luis
+ * @see RequestTracer
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    /** Trecho aberto; fechar mais de uma vez não tem efeito. */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Span NOOP = () -> {};
+
+    /** Trecho registrado (mutável só até ser fechado) */
+    private static final class Entry {
+        final String kind;
+        final String name;
+        final int depth;
+        final long startNanos;
+        long durationNanos = -1;
+
+        Entry(String kind, String name, int depth, long startNanos) {
+            this.kind = kind;
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private final String traceId;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+    private final List<Entry> spans = new ArrayList<>();
+    private int depth;
+    private int dropped;
+
+    private RequestTrace(String traceId, int maxSpans) {
+        this.traceId = traceId;
+        this.maxSpans = maxSpans;
+    }
+
+    /** Abre um rastro para a thread atual. */
+    static RequestTrace begin(String traceId, int maxSpans) {
+        RequestTrace trace = new RequestTrace(traceId, maxSpans);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /** Fecha o rastro da thread atual. */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Abre um trecho no rastro da thread atual.
+     *
+     * @param kind tipo do trecho (ex.: controller, repository, mail)
+     * @param name nome do trecho (ex.: classe e método)
+     * @return trecho a ser fechado ao terminar (vazio se a requisição não é rastreada)
+     */
+    public static Span span(String kind, String name) {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? NOOP : trace.open(kind, name);
+    }
+
+    /**
+     * Registra um trecho que acabou de terminar, com a duração já medida
+     * (ex.: chamadas de repositório informadas pelo Spring Data).
+     *
+     * @param kind          tipo do trecho
+     * @param name          nome do trecho
+     * @param durationNanos duração, em nanossegundos
+     */
+    public static void completed(String kind, String name, long durationNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null && trace.accept()) {
+            Entry entry = new Entry(kind, name, trace.depth, System.nanoTime() - durationNanos);
+            entry.durationNanos = durationNanos;
+            trace.spans.add(entry);
+        }
+    }
+
+    /** @return true se a thread atual está em uma requisição rastreada */
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    private Span open(String kind, String name) {
+        if (!accept()) {
+            return NOOP;
+        }
+        Entry entry = new Entry(kind, name, depth++, System.nanoTime());
+        spans.add(entry);
+        return () -> {
+            if (entry.durationNanos < 0) {
+                entry.durationNanos = System.nanoTime() - entry.startNanos;
+                depth--;
+            }
+        };
+    }
+
+    /** Limita a quantidade de trechos por rastro (laços com consultas não crescem sem limite). */
+    private boolean accept() {
+        if (spans.size() < maxSpans) {
+            return true;
+        }
+        dropped++;
+        return false;
+    }
+
+    /** @return id do rastro */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * Converte o rastro em DTO imutável, com os trechos em ordem de início
+     * (os registrados por {@link #completed(String, String, long)} entram na
+     * lista só ao terminar); trechos ainda abertos ficam com duração -1.
+     *
+     * @param route  rota (método e padrão)
+     * @param status status HTTP da resposta
+     */
+    TraceDTO toDTO(String route, int status) {
+        List<Entry> ordered = new ArrayList<>(spans);
+        ordered.sort(Comparator.comparingLong(e -> e.startNanos - startNanos));
+        List<TraceSpanDTO> list = new ArrayList<>(ordered.size());
+        for (Entry e : ordered) {
+            list.add(new TraceSpanDTO(
+                e.kind,
+                e.name,
+                e.depth,
+                (e.startNanos - startNanos) / 1e6,
+                e.durationNanos < 0 ? -1 : e.durationNanos / 1e6
+            ));
+        }
+        return new TraceDTO(traceId, route, status, startedAt,
+                (System.nanoTime() - startNanos) / 1e6, dropped, list);
+    }
+}
@@ -0,0 +1,95 @@
+package com.blog.eu.infos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.blog.eu.dto.TraceDTO;
+
+/**
+ * Rastreador de requisições em processo: decide quais requisições são
+ * amostradas e guarda os rastros concluídos em um buffer circular.
+ *
+ * O buffer é um {@link AtomicReferenceArray} com um índice {@link AtomicLong}:
+ * cada rastro concluído ocupa a próxima posição, sobrescrevendo o mais antigo,
+ * sem locks. Os rastros são DTOs imutáveis, então a leitura só copia as
+ * referências do array.
+ *
+ * Configuração:
+ * - app.tracing.sample-rate: fração das requisições rastreadas, de 0 a 1 (padrão 0.01);
+ *   com 0 o filtro não abre rastros e os pontos de instrumentação custam só uma leitura de ThreadLocal
+ * - app.tracing.buffer-size: rastros guardados (padrão 256)
+ * - app.tracing.max-spans: trechos por rastro (padrão 200)
+ *
+ * @author Luis
+ * @see RequestTrace
+ * @see com.blog.eu.admin.utils.TraceFilter
+ */
+@Component
+public class RequestTracer {
+
+    private final double sampleRate;
+    private final int maxSpans;
+    private final AtomicReferenceArray<TraceDTO> ring;
+    private final AtomicLong next = new AtomicLong();
+
+    public RequestTracer(@Value("${app.tracing.sample-rate:0.01}") double sampleRate,
+                         @Value("${app.tracing.buffer-size:256}") int bufferSize,
+                         @Value("${app.tracing.max-spans:200}") int maxSpans) {
+        this.sampleRate = Math.min(Math.max(sampleRate, 0.0), 1.0);
+        this.maxSpans = Math.max(maxSpans, 1);
+        this.ring = new AtomicReferenceArray<>(Math.max(bufferSize, 1));
+    }
+
+    /** @return true se o rastreamento está ligado (taxa de amostragem maior que zero) */
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    /**
+     * Decide se a requisição atual é amostrada e, se for, abre o rastro dela.
+     *
+     * @return rastro aberto, ou null se a requisição não será rastreada
+     */
+    public RequestTrace begin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (sampleRate < 1.0 && random.nextDouble() >= sampleRate) {
+            return null;
+        }
+        return RequestTrace.begin(String.format("%016x", random.nextLong()), maxSpans);
+    }
+
+    /**
+     * Fecha o rastro da thread atual e o guarda no buffer.
+     *
+     * @param trace  rastro aberto por {@link #begin()}
+     * @param route  rota (método e padrão)
+     * @param status status HTTP da resposta
+     */
+    public void complete(RequestTrace trace, String route, int status) {
+        RequestTrace.end();
+        ring.set((int) (next.getAndIncrement() % ring.length()), trace.toDTO(route, status));
+    }
+
+    /**
+     * @param limit quantidade máxima de rastros
+     * @return rastros recentes, do mais lento para o mais rápido
+     */
+    public List<TraceDTO> slowest(int limit) {
+        List<TraceDTO> list = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            TraceDTO trace = ring.get(i);
+            if (trace != null) {
+                list.add(trace);
+            }
+        }
+        list.sort(Comparator.comparingDouble(TraceDTO::durationMs).reversed());
+        return list.subList(0, Math.min(Math.max(limit, 0), list.size()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.blog.eu.infos;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de requisições e erros da última hora, sem locks.
+ *
+ * Mantém dois anéis de buckets: um por segundo, com o último minuto, e um
+ * por minuto, com a última hora. Janelas de até um minuto somam os buckets
+ * de segundo; janelas maiores somam só os buckets de minuto (os minutos
+ * completos mais recentes), então a janela de uma hora lê 60 buckets em vez
+ * de 3600.
+ *
+ * Cada bucket é um long com o segundo (ou minuto) a que pertence nos 32 bits
+ * altos e a contagem nos 32 bits baixos. Um incremento num bucket antigo o
+ * reinicia no mesmo compare-and-set, então a reutilização do anel nunca
+ * perde nem mistura contagens.
+ *
+ * @author Luis
+ */
+public class RollingCounter {
+
+    /** Maior janela, em segundos */
+    public static final int SECONDS = 3600;
+
+    /** Janelas até este tamanho, em segundos, são exatas (buckets de segundo) */
+    public static final int SECOND_WINDOW = 60;
+
+    /** Minutos da maior janela mais o minuto em andamento */
+    private static final int MINUTE_SLOTS = SECONDS / 60 + 1;
+
+    private static final long COUNT_MASK = 0xffffffffL;
+
+    private final AtomicLongArray requests = new AtomicLongArray(SECOND_WINDOW);
+    private final AtomicLongArray errors = new AtomicLongArray(SECOND_WINDOW);
+    private final AtomicLongArray minuteRequests = new AtomicLongArray(MINUTE_SLOTS);
+    private final AtomicLongArray minuteErrors = new AtomicLongArray(MINUTE_SLOTS);
+
+    /**
+     * Registra uma requisição.
+     *
+     * @param second segundo atual (desde uma origem comum, a partir de 1)
+     * @param error  true se a requisição terminou com erro
+     */
+    public void record(long second, boolean error) {
+        int slot = (int) (second % SECOND_WINDOW);
+        long minute = second / 60;
+        int minuteSlot = (int) (minute % MINUTE_SLOTS);
+        increment(requests, slot, second);
+        increment(minuteRequests, minuteSlot, minute);
+        if (error) {
+            increment(errors, slot, second);
+            increment(minuteErrors, minuteSlot, minute);
+        }
+    }
+
+    /**
+     * Soma as requisições e os erros dos últimos segundos.
+     *
+     * Até {@link #SECOND_WINDOW} segundos a janela termina no segundo atual.
+     * Acima disso ela é arredondada para minutos inteiros e cobre os últimos
+     * minutos completos, sem o minuto em andamento (até 59 s de atraso).
+     *
+     * @param now     segundo atual
+     * @param seconds tamanho da janela (até {@link #SECONDS}), incluindo o segundo atual
+     * @return {requisições, erros}
+     */
+    public long[] sum(long now, int seconds) {
+        if (seconds <= SECOND_WINDOW) {
+            return sum(requests, errors, now - seconds + 1, now);
+        }
+        long current = now / 60;
+        return sum(minuteRequests, minuteErrors, current - seconds / 60, current - 1);
+    }
+
+    /** Soma os buckets de from a to (inclusive), ignorando os anteriores à origem. */
+    private static long[] sum(AtomicLongArray requests, AtomicLongArray errors, long from, long to) {
+        long total = 0;
+        long failed = 0;
+        for (long s = Math.max(from, 0); s <= to; s++) {
+            int slot = (int) (s % requests.length());
+            total += count(requests.get(slot), s);
+            failed += count(errors.get(slot), s);
+        }
+        return new long[] {total, failed};
+    }
+
+    private static void increment(AtomicLongArray array, int slot, long bucket) {
+        while (true) {
+            long current = array.get(slot);
+            long next = (current >>> 32) == bucket ? current + 1 : (bucket << 32) | 1;
+            if (array.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private static long count(long packed, long bucket) {
+        return (packed >>> 32) == bucket ? packed & COUNT_MASK : 0;
+    }
+}
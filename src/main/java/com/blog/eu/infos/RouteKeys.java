@@ -0,0 +1,58 @@
+package com.blog.eu.infos;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Chaves de rota usadas pelos contadores por rota ({@link RequestCounter},
+ * {@link LatencyRecorder}, {@link RequestRateTracker}, {@link SqlStatsRecorder}).
+ *
+ * A rota é "METODO padrão"; o método só pode ser um dos métodos HTTP padrão
+ * (outros viram "OTHER"), e cada contador aceita no máximo
+ * app.metrics.max-routes rotas distintas: as demais são somadas em
+ * {@link #OVERFLOW}. Assim nenhum cliente consegue criar contadores novos
+ * sem limite variando o método ou a URL.
+ *
+ * @author Luis
+ */
+public final class RouteKeys {
+
+    /** Rota em que são somadas as requisições acima do limite de rotas */
+    public static final String OVERFLOW = "OTHER *";
+
+    private static final Set<String> METHODS = Set.of(
+        "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE"
+    );
+
+    private RouteKeys() {}
+
+    /**
+     * @param method método da requisição
+     * @return o próprio método, se for um método HTTP padrão, ou "OTHER"
+     */
+    public static String method(String method) {
+        return METHODS.contains(method) ? method : "OTHER";
+    }
+
+    /**
+     * Busca (ou cria) o contador da rota, respeitando o limite de rotas.
+     *
+     * O limite é verificado sem lock: threads concorrentes podem passar dele
+     * por no máximo uma entrada cada, o que não muda a ordem de grandeza.
+     *
+     * @param routes    contadores por rota
+     * @param route     rota
+     * @param maxRoutes quantidade máxima de rotas distintas
+     * @param factory   cria o contador de uma rota nova
+     * @return contador da rota, ou o de {@link #OVERFLOW} se o limite foi atingido
+     */
+    static <V> V get(ConcurrentHashMap<String, V> routes, String route, int maxRoutes,
+                     Function<String, V> factory) {
+        V value = routes.get(route);
+        if (value != null) {
+            return value;
+        }
+        return routes.computeIfAbsent(routes.size() >= maxRoutes ? OVERFLOW : route, factory);
+    }
+}
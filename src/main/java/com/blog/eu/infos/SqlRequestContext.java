@@ -0,0 +1,103 @@
+package com.blog.eu.infos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Contagem dos comandos SQL executados pela requisição atual.
+ *
+ * O contexto fica em um {@link ThreadLocal}, aberto e fechado pelo
+ * {@link com.blog.eu.admin.utils.SqlStatementFilter}; fora de uma
+ * requisição (tarefas agendadas, threads de fundo) não há contexto e os
+ * registros são ignorados. Só é acessado pela thread da requisição.
+ *
+ * Os comandos são contados pelo SQL como o Hibernate o gerou (já com
+ * parâmetros ?), o que custa só um hash da string. A normalização em formatos
+ * (literais trocados por ? e listas "in" resumidas), usada para mostrar as
+ * consultas repetidas de um N+1, só roda em {@link #topRepeated(int)}, quando
+ * o aviso é de fato registrado.
+ *
+ * @author Luis
+ * @see SqlStatementInspector
+ * @see SqlTimingListener
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\((\\s*\\?\\s*,)*\\s*\\?\\s*\\)");
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+    private static final int MAX_SHAPE = 300;
+
+    private int statements;
+    private long nanos;
+    private final Map<String, Integer> sqls = new HashMap<>();
+
+    private SqlRequestContext() {}
+
+    /** Abre um contexto para a thread atual. */
+    public static SqlRequestContext begin() {
+        SqlRequestContext context = new SqlRequestContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    /** Fecha o contexto da thread atual. */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /** @return contexto da thread atual, ou null fora de uma requisição */
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    /** Registra um comando SQL preparado. */
+    void statement(String sql) {
+        statements++;
+        sqls.merge(sql, 1, Integer::sum);
+    }
+
+    /** Soma o tempo de execução de um comando no banco. */
+    void time(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    /** @return quantidade de comandos SQL */
+    public int getStatements() {
+        return statements;
+    }
+
+    /** @return tempo de execução no banco, em nanossegundos */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @param limit quantidade máxima de formatos
+     * @return formatos executados mais de uma vez, do mais repetido para o menos
+     */
+    public List<Map.Entry<String, Integer>> topRepeated(int limit) {
+        Map<String, Integer> shapes = new HashMap<>();
+        sqls.forEach((sql, count) -> shapes.merge(shape(sql), count, Integer::sum));
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : shapes.entrySet()) {
+            if (e.getValue() > 1) {
+                repeated.add(e);
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return repeated.subList(0, Math.min(limit, repeated.size()));
+    }
+
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        shape = LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+        return shape.length() > MAX_SHAPE ? shape.substring(0, MAX_SHAPE) + "…" : shape;
+    }
+}
@@ -0,0 +1,23 @@
+package com.blog.eu.infos;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector} do Hibernate que conta cada comando SQL
+ * preparado no {@link SqlRequestContext} da requisição atual.
+ * Não altera o SQL.
+ *
+ * @author Luis
+ * @see com.blog.eu.config.SqlInstrumentationConfig
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.statement(sql);
+        }
+        return sql;
+    }
+}
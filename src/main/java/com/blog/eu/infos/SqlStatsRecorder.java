@@ -0,0 +1,77 @@
+package com.blog.eu.infos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.blog.eu.dto.RouteSqlStatsDTO;
+
+/**
+ * Estatísticas de comandos SQL por rota, acumuladas desde o início da aplicação.
+ *
+ * O mapa não é limpo, então as rotas ficam limitadas a app.metrics.max-routes
+ * (as excedentes vão para {@link RouteKeys#OVERFLOW}).
+ *
+ * @author Luis
+ * @see com.blog.eu.admin.utils.SqlStatementFilter
+ */
+@Component
+public class SqlStatsRecorder {
+
+    /** Acumuladores de uma rota */
+    private record RouteStats(LongAdder requests, LongAdder statements, LongAdder nanos,
+                              AtomicLong maxStatements, LongAdder overBudget) {}
+
+    private final ConcurrentHashMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final int maxRoutes;
+
+    public SqlStatsRecorder(@Value("${app.metrics.max-routes:200}") int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    /**
+     * Registra os comandos de uma requisição.
+     *
+     * @param route      rota (método e padrão)
+     * @param statements quantidade de comandos
+     * @param nanos      tempo no banco, em nanossegundos
+     * @param overBudget true se passou do orçamento de comandos
+     */
+    public void record(String route, int statements, long nanos, boolean overBudget) {
+        RouteStats stats = RouteKeys.get(routes, route, maxRoutes, k -> new RouteStats(
+            new LongAdder(), new LongAdder(), new LongAdder(), new AtomicLong(), new LongAdder()));
+        stats.requests().increment();
+        stats.statements().add(statements);
+        stats.nanos().add(nanos);
+        stats.maxStatements().accumulateAndGet(statements, Math::max);
+        if (overBudget) {
+            stats.overBudget().increment();
+        }
+    }
+
+    /** @return estatísticas por rota, da maior média de comandos para a menor */
+    public List<RouteSqlStatsDTO> getStats() {
+        List<RouteSqlStatsDTO> list = new ArrayList<>(routes.size());
+        routes.forEach((route, s) -> {
+            long requests = s.requests().sum();
+            long statements = s.statements().sum();
+            list.add(new RouteSqlStatsDTO(
+                route,
+                requests,
+                statements,
+                requests == 0 ? 0.0 : (double) statements / requests,
+                s.maxStatements().get(),
+                requests == 0 ? 0.0 : s.nanos().sum() / 1e6 / requests,
+                s.overBudget().sum()
+            ));
+        });
+        list.sort(Comparator.comparingDouble(RouteSqlStatsDTO::avgStatements).reversed());
+        return list;
+    }
+}
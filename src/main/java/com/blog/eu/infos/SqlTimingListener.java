@@ -0,0 +1,47 @@
+package com.blog.eu.infos;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Listener de eventos de sessão do Hibernate que mede o tempo de execução
+ * dos comandos (e batches) JDBC e soma no {@link SqlRequestContext} da
+ * requisição atual.
+ *
+ * O Hibernate cria uma instância por sessão (hibernate.session.events.auto),
+ * e uma sessão é usada por uma thread de cada vez.
+ *
+ * @author Luis
+ * @see com.blog.eu.config.SqlInstrumentationConfig
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null && start != 0) {
+            context.time(System.nanoTime() - start);
+        }
+        start = 0;
+    }
+}
@@ -0,0 +1,224 @@
+package com.blog.eu.infos;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.eu.dto.RequestStatsDTO;
+import com.blog.eu.dto.RouteCountDTO;
+import com.blog.eu.enuns.TrafficGranularity;
+import com.blog.eu.repo.TrafficStatRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Grava periodicamente (write-behind) as contagens do {@link RequestCounter}
+ * na tabela traffic_stats, para que o tráfego sobreviva a deploys e tenha histórico.
+ *
+ * A cada execução o flusher lê os contadores acumulados do dia, calcula o
+ * quanto cada rota cresceu desde a última gravação e soma esses incrementos
+ * às linhas da hora atual e do dia (e às linhas "*" de total), em um único
+ * batch JDBC transacional com INSERT ... AS inc ON DUPLICATE KEY UPDATE
+ * (alias de linha, MySQL 8.0.19+). Se o lote falhar, as rotas são gravadas
+ * uma a uma e só a rota com problema é descartada. Tudo roda na thread do
+ * agendador: as requisições só incrementam contadores em memória.
+ *
+ * Incrementos que sobraram do dia anterior depois da virada são gravados na
+ * última hora daquele dia. As linhas por hora mais antigas que a retenção
+ * são apagadas; as diárias são mantidas.
+ *
+ * Configuração:
+ * - app.metrics.traffic.flush-ms: intervalo entre gravações (padrão 60000)
+ * - app.metrics.traffic.hourly-retention-days: retenção das linhas por hora (padrão 35)
+ *
+ * @author Luis
+ */
+@Component
+public class TrafficStatsFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficStatsFlusher.class);
+
+    private static final String TOTAL = "*";
+
+    private static final String UPSERT_SQL = """
+        insert into traffic_stats (granularity, bucket_start, route, requests, errors)
+        values (?, ?, ?, ?, ?) as inc
+        on duplicate key update requests = requests + inc.requests, errors = errors + inc.errors
+        """;
+
+    /** Tamanho da coluna traffic_stats.route (ver {@link com.blog.eu.model.TrafficStat}) */
+    private static final int MAX_ROUTE = 200;
+
+    /** Rota em um dia: chave dos valores já gravados */
+    private record Key(LocalDate day, String route) {}
+
+    /** Incrementos de uma rota em um dia, com as contagens a marcar como gravadas */
+    private record Pending(Key key, long[] counts, String route, Timestamp hour, Timestamp day,
+                           long requests, long errors) {
+
+        List<Object[]> rows() {
+            return List.of(row(TrafficGranularity.HOUR, hour, route, requests, errors),
+                           row(TrafficGranularity.DAY, day, route, requests, errors));
+        }
+    }
+
+    private final RequestCounter requestCounter;
+    private final TrafficStatRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final int hourlyRetentionDays;
+
+    /** Contagens {requisições, erros} já gravadas por rota e dia */
+    private final Map<Key, long[]> flushed = new HashMap<>();
+
+    public TrafficStatsFlusher(RequestCounter requestCounter, TrafficStatRepository repository,
+                               JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               @Value("${app.metrics.traffic.hourly-retention-days:35}") int hourlyRetentionDays) {
+        this.requestCounter = requestCounter;
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.hourlyRetentionDays = hourlyRetentionDays;
+    }
+
+    /** Grava os incrementos desde a última execução. */
+    @Scheduled(fixedDelayString = "${app.metrics.traffic.flush-ms:60000}",
+               initialDelayString = "${app.metrics.traffic.flush-ms:60000}")
+    public synchronized void flush() {
+        List<Pending> pending = new ArrayList<>();
+
+        RequestStatsDTO previous = requestCounter.getPreviousStats();
+        if (previous != null) {
+            collect(previous, previous.day().atTime(23, 0), pending);
+        }
+        RequestStatsDTO current = requestCounter.getStats();
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        if (!hour.toLocalDate().equals(current.day())) {
+            hour = current.day().atTime(23, 0);
+        }
+        collect(current, hour, pending);
+
+        if (!pending.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>();
+            pending.forEach(p -> rows.addAll(p.rows()));
+            rows.addAll(totals(pending));
+            try {
+                write(rows);
+                pending.forEach(p -> flushed.put(p.key(), p.counts()));
+            } catch (DataAccessException e) {
+                log.warn("Falha ao gravar as estatísticas de tráfego em lote; gravando rota a rota", e);
+                flushEach(pending);
+            }
+        }
+        LocalDate oldest = current.day().minusDays(1);
+        flushed.keySet().removeIf(k -> k.day().isBefore(oldest));
+    }
+
+    /** Remove as linhas por hora mais antigas que a retenção. */
+    @Scheduled(fixedDelayString = "${app.metrics.traffic.purge-ms:3600000}",
+               initialDelayString = "${app.metrics.traffic.purge-ms:3600000}")
+    public void purgeHourly() {
+        repository.deleteOlderThan(TrafficGranularity.HOUR,
+                LocalDateTime.now().minusDays(hourlyRetentionDays).truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /** Grava o que ainda estiver pendente ao desligar a aplicação. */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Grava rota a rota, cada uma na sua transação, depois que o lote falhou.
+     *
+     * Uma rota recusada pelo banco (dado inválido) é descartada e marcada como
+     * gravada, para não travar as demais nas próximas execuções; qualquer outra
+     * falha (banco fora do ar) interrompe a gravação e os incrementos que
+     * faltam continuam pendentes. Os totais somam só as rotas gravadas.
+     */
+    private void flushEach(List<Pending> pending) {
+        List<Pending> written = new ArrayList<>();
+        for (Pending p : pending) {
+            try {
+                write(p.rows());
+                written.add(p);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Estatísticas de tráfego descartadas para a rota {}: {}", p.route(), e.getMessage());
+            } catch (DataAccessException e) {
+                log.warn("Falha ao gravar as estatísticas de tráfego; incrementos mantidos para a próxima execução", e);
+                break;
+            }
+            flushed.put(p.key(), p.counts());
+        }
+        if (!written.isEmpty()) {
+            try {
+                write(totals(written));
+            } catch (DataAccessException e) {
+                log.warn("Falha ao gravar os totais de tráfego", e);
+            }
+        }
+    }
+
+    /** Executa as linhas em um único batch, dentro de uma transação (tudo ou nada). */
+    private void write(List<Object[]> rows) {
+        transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, rows));
+    }
+
+    /** Linhas "*" com a soma dos incrementos, por dia (e hora) */
+    private static List<Object[]> totals(List<Pending> pending) {
+        Map<LocalDate, Pending> byDay = new LinkedHashMap<>();
+        for (Pending p : pending) {
+            byDay.merge(p.key().day(), p, (a, b) -> new Pending(a.key(), null, TOTAL, a.hour(), a.day(),
+                    a.requests() + b.requests(), a.errors() + b.errors()));
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (Pending t : byDay.values()) {
+            rows.addAll(new Pending(t.key(), null, TOTAL, t.hour(), t.day(), t.requests(), t.errors()).rows());
+        }
+        return rows;
+    }
+
+    /** Calcula os incrementos de cada rota do dia. */
+    private void collect(RequestStatsDTO stats, LocalDateTime hour, List<Pending> pending) {
+        Timestamp hourStart = Timestamp.valueOf(hour);
+        Timestamp dayStart = Timestamp.valueOf(stats.day().atStartOfDay());
+        for (RouteCountDTO r : stats.routes()) {
+            Key key = new Key(stats.day(), r.route());
+            long[] last = flushed.getOrDefault(key, new long[2]);
+            long requests = r.total() - last[0];
+            long errors = r.s5xx() - last[1];
+            if (requests == 0 && errors == 0) {
+                continue;
+            }
+            pending.add(new Pending(key, new long[] {r.total(), r.s5xx()}, column(r.route()),
+                    hourStart, dayStart, requests, errors));
+        }
+    }
+
+    /** Rota cortada no tamanho da coluna {@code traffic_stats.route} */
+    private static String column(String route) {
+        return route.length() > MAX_ROUTE ? route.substring(0, MAX_ROUTE) : route;
+    }
+
+    private static Object[] row(TrafficGranularity granularity, Timestamp start, String route,
+                                long requests, long errors) {
+        return new Object[] {granularity.name(), start, route, requests, errors};
+    }
+}
@@ -5,7 +5,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Entidade que representa um comentário associado a um {@link Post}.
@@ -29,11 +31,17 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
  * - modificado: indica se o comentário foi editado após a criação
  * - parent: comentário pai, caso seja uma resposta
  * - respostas: lista de respostas associadas a este comentário
+ * - path: caminho materializado do comentário na thread
+ * - depth: profundidade do comentário na thread
+ * - replyCount: quantidade de respostas diretas
  *
  * @author Luis
  */
 @Entity
-@Table(name = "comentarios")
+@Table(name = "comentarios", indexes = {
+    @Index(name = "idx_comentarios_post_parent", columnList = "post_id, parent_id, id"),
+    @Index(name = "idx_comentarios_path", columnList = "path")
+})
 public class Comentario {
 
     /** Identificador único do comentário */
@@ -76,6 +84,23 @@ public class Comentario {
     @JsonManagedReference("comment-replies")
     private List<Comentario> respostas = new ArrayList<>();
 
+    /**
+     * Caminho materializado: ids dos ancestrais e do próprio comentário,
+     * em base 36 com largura fixa, separados por "/" (ex.: "000000000a/000000002f/").
+     * Permite buscar uma subárvore inteira, em ordem de profundidade, por prefixo.
+     */
+    @Column(length = 700)
+    @JsonIgnore
+    private String path;
+
+    /** Profundidade do comentário na thread (0 para comentários raiz) */
+    @JsonIgnore
+    private Integer depth;
+
+    /** Quantidade de respostas diretas, mantida pelas escritas */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer replyCount = 0;
+
 
 
     public Comentario(Long id, String texto, User autor, Post post, String dataCriacao, Boolean modificado,
@@ -116,4 +141,13 @@ public class Comentario {
 
     public List<Comentario> getRespostas() { return respostas; }
     public void setRespostas(List<Comentario> respostas) { this.respostas = respostas; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public Integer getDepth() { return depth; }
+    public void setDepth(Integer depth) { this.depth = depth; }
+
+    public Integer getReplyCount() { return replyCount; }
+    public void setReplyCount(Integer replyCount) { this.replyCount = replyCount; }
 }
@@ -7,8 +7,10 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.infos.RequestTrace;
 import com.blog.eu.service.JwtService;
+import com.blog.eu.service.TokenRevocationService;
+import com.blog.eu.service.UserPrincipalCache;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,11 +25,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepo;
+    private final UserPrincipalCache userCache;
+    private final TokenRevocationService revocationService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepo) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserPrincipalCache userCache,
+                                   TokenRevocationService revocationService) {
         this.jwtService = jwtService;
-        this.userRepo = userRepo;
+        this.userCache = userCache;
+        this.revocationService = revocationService;
     }
 
     
@@ -39,18 +44,20 @@ protected void doFilterInternal(HttpServletRequest request,
     String header = request.getHeader("Authorization");
     if (header != null && header.startsWith("Bearer ")) {
         String token = header.substring(7);
-        try {
-            Long userId = jwtService.parseSubject(token);
-            String role = jwtService.parseRole(token); // 🔥 extrai o claim "role"
+        try (RequestTrace.Span span = RequestTrace.span("security", "JwtAuthenticationFilter.verify")) {
+            TokenClaims claims = jwtService.verify(token); // verifica o token uma única vez
 
-            User user = userRepo.findById(userId).orElse(null);
+            // token revogado (logout) → não autentica; consulta só em memória
+            User user = revocationService.isRevoked(claims.jti()) ? null : userCache.get(claims.userId());
             if (user != null) {
                 UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(
                         user,
                         null,
-                        List.of(new SimpleGrantedAuthority("ROLE_" + role)) // 🔥 adiciona autoridade
+                        // role do usuário em cache, não do token: mudanças de role valem sem esperar o token expirar
+                        List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
                     );
+                auth.setDetails(claims); // controladores leem as claims daqui
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
         } catch (Exception e) {
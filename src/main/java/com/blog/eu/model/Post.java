@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Entidade JPA que representa um post publicado por um {@link User}.
@@ -23,6 +24,8 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
  * - content: conteúdo textual do post
  * - author: usuário autor do post (obrigatório)
  * - comments: lista de comentários associados ao post
+ * - version: versão do post e de seus comentários (usada no ETag)
+ * - commentCount: quantidade de comentários do post
  *
  * Essa entidade é fundamental para o funcionamento do sistema de blog,
  * permitindo a criação, exibição e interação em posts.
@@ -56,6 +59,18 @@ public class Post {
     @JsonManagedReference
     private List<Comentario> comments = new ArrayList<>();
 
+    /**
+     * Versão do post, incrementada sempre que o post ou qualquer um de seus
+     * comentários é alterado. Usada para gerar o ETag das respostas.
+     */
+    @Column(nullable=false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version = 0L;
+
+    /** Quantidade de comentários do post (incluindo respostas), mantida pelas escritas */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer commentCount = 0;
+
     /** Construtor padrão exigido pelo JPA */
     public Post() {}
 
@@ -76,6 +91,12 @@ public class Post {
         this.comments = comments;
     }
 
+    /** Incrementa a versão quando o próprio post é alterado */
+    @PreUpdate
+    void incrementVersion() {
+        version = version == null ? 1L : version + 1;
+    }
+
     // Getters e Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -91,4 +112,10 @@ public class Post {
 
     public List<Comentario> getComments() { return comments; }
     public void setComments(List<Comentario> comments) { this.comments = comments; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Integer getCommentCount() { return commentCount; }
+    public void setCommentCount(Integer commentCount) { this.commentCount = commentCount; }
 }
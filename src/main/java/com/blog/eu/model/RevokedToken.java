@@ -0,0 +1,58 @@
+package com.blog.eu.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+/**
+ * Entidade JPA que registra um token JWT revogado (logout).
+ *
+ * O token é identificado pela claim {@code jti}. O registro só precisa
+ * existir até a expiração do token; depois disso o próprio JWT deixa de ser
+ * aceito e a linha é removida pela limpeza periódica do
+ * {@link com.blog.eu.service.TokenRevocationService}.
+ *
+ * Campos principais:
+ * - jti: identificador único do token
+ * - expiresAt: expiração do token
+ * - revokedAt: momento da revogação (usado na sincronização entre instâncias)
+ *
+ * @author Luis
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    /** Identificador único do token (claim jti) */
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    /** Expiração do token */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /** Momento da revogação */
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    public RevokedToken() {}
+
+    public RevokedToken(String jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
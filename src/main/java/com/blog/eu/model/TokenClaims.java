@@ -0,0 +1,24 @@
+package com.blog.eu.model;
+
+import java.time.Instant;
+
+/**
+ * Claims de um token JWT já verificado.
+ *
+ * Criado uma única vez por requisição pelo {@link JwtAuthenticationFilter}
+ * e guardado nos detalhes da autenticação no SecurityContext, para que os
+ * controladores leiam o usuário e a role sem verificar o token de novo.
+ *
+ * @param userId    id do usuário (subject do token)
+ * @param role      role do usuário no momento da emissão do token
+ * @param jti       identificador único do token (null em tokens antigos)
+ * @param expiresAt expiração do token
+ * @author Luis
+ */
+public record TokenClaims(
+    Long userId,
+    String role,
+    String jti,
+    Instant expiresAt
+) {
+}
@@ -0,0 +1,73 @@
+package com.blog.eu.model;
+
+import java.time.LocalDateTime;
+
+import com.blog.eu.enuns.TrafficGranularity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entidade JPA com a quantidade de requisições de uma rota em uma hora ou em um dia.
+ *
+ * As linhas são gravadas pelo {@link com.blog.eu.infos.TrafficStatsFlusher},
+ * que soma a elas os incrementos dos contadores em memória. Além das rotas,
+ * cada período tem uma linha com route = "*" com o total de todas as rotas,
+ * então o histórico diário de um ano é uma consulta de até 366 linhas.
+ *
+ * Campos principais:
+ * - granularity: HOUR ou DAY
+ * - bucketStart: início da hora ou do dia
+ * - route: rota (método e padrão) ou "*"
+ * - requests: quantidade de requisições
+ * - errors: quantidade de respostas 5xx
+ *
+ * @author Luis
+ */
+@Entity
+@Table(name = "traffic_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_traffic_stats_bucket", columnNames = {"granularity", "route", "bucket_start"})
+})
+public class TrafficStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Granularidade do período (hora ou dia) */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private TrafficGranularity granularity;
+
+    /** Início do período */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /** Rota (método e padrão), ou "*" para o total */
+    @Column(nullable = false, length = 200)
+    private String route;
+
+    /** Requisições no período */
+    @Column(nullable = false)
+    private long requests;
+
+    /** Respostas 5xx no período */
+    @Column(nullable = false)
+    private long errors;
+
+    public Long getId() { return id; }
+
+    public TrafficGranularity getGranularity() { return granularity; }
+    public void setGranularity(TrafficGranularity granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public String getRoute() { return route; }
+    public void setRoute(String route) { this.route = route; }
+
+    public long getRequests() { return requests; }
+    public void setRequests(long requests) { this.requests = requests; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+}
@@ -1,6 +1,7 @@
 package com.blog.eu.pedidos.repository;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,6 +14,12 @@ public interface PeditosC extends JpaRepository<Peditos, Long> {
     List<Peditos> findByStatusOrderByPosicaoFilaAsc(StatusPedido status);
     @Query("SELECT COALESCE(MAX(p.posicaoFila), 0) FROM Peditos p WHERE p.status = 'NA_FILA'")
     Integer findMaxPosicaoFila();
+
+    long countByStatus(StatusPedido status);
+
+    /** Momento do pedido mais antigo com o status informado (null se não houver) */
+    @Query("SELECT MIN(p.tempoQuePediu) FROM Peditos p WHERE p.status = :status")
+    LocalDateTime findOldestTempoQuePediu(StatusPedido status);
     
 
 }
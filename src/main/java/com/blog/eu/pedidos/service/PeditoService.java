@@ -1,26 +1,92 @@
 package com.blog.eu.pedidos.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import com.blog.eu.dto.DtoPedito;
 import com.blog.eu.enuns.StatusPedido;
 import com.blog.eu.model.User;
 import com.blog.eu.pedidos.model.Peditos;
 import com.blog.eu.pedidos.repository.PeditosC;
+import com.blog.eu.service.UserPrincipalCache;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 
+/**
+ * Fila de pedidos.
+ *
+ * Métricas (Micrometer):
+ * - peditos.fila.tamanho: pedidos aguardando na fila
+ * - peditos.fila.espera.atual: há quanto tempo (segundos) o pedido mais antigo aguarda
+ * - peditos.fila.espera: tempo de espera de cada pedido até sair da fila
+ *
+ * Os dois primeiros não consultam o banco a cada coleta do Prometheus: o
+ * tamanho da fila e o momento do pedido mais antigo são lidos por uma tarefa
+ * agendada (app.metrics.peditos.refresh-ms, padrão 15000) e guardados em
+ * memória, então a coleta continua respondendo com o banco ou o pool saturados.
+ *
+ * @author Luis
+ */
 @Service
 public class PeditoService {
+    private static final Logger log = LoggerFactory.getLogger(PeditoService.class);
+
     private final PeditosC peditosC;
-   
+    private final UserPrincipalCache userCache;
+    private final Timer esperaNaFila;
+
+    /** Última leitura da fila, usada pelos gauges */
+    private volatile long tamanhoDaFila;
+    private volatile LocalDateTime maisAntigoNaFila;
 
-    public PeditoService(PeditosC peditosC) {
+    public PeditoService(PeditosC peditosC, UserPrincipalCache userCache, MeterRegistry meterRegistry) {
         this.peditosC = peditosC;
-        
+        this.userCache = userCache;
+        Gauge.builder("peditos.fila.tamanho", this, s -> s.tamanhoDaFila)
+                .description("Pedidos aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("peditos.fila.espera.atual", this, PeditoService::esperaDoMaisAntigo)
+                .description("Tempo de espera do pedido mais antigo da fila")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.esperaNaFila = Timer.builder("peditos.fila.espera")
+                .description("Tempo de espera dos pedidos até sair da fila")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Atualiza o tamanho da fila e o pedido mais antigo lidos pelos gauges. */
+    @Scheduled(fixedDelayString = "${app.metrics.peditos.refresh-ms:15000}")
+    public void atualizarMetricasDaFila() {
+        try {
+            tamanhoDaFila = peditosC.countByStatus(StatusPedido.NA_FILA);
+            maisAntigoNaFila = peditosC.findOldestTempoQuePediu(StatusPedido.NA_FILA);
+        } catch (DataAccessException e) {
+            // mantém a última leitura; os gauges continuam respondendo
+            log.warn("Falha ao atualizar as métricas da fila de pedidos: {}", e.getMessage());
+        }
+    }
+
+    /** Segundos desde o pedido mais antigo ainda na fila (0 com a fila vazia) */
+    private double esperaDoMaisAntigo() {
+        LocalDateTime maisAntigo = maisAntigoNaFila;
+        return maisAntigo == null ? 0 : Duration.between(maisAntigo, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    private void registrarEspera(Peditos pedido) {
+        if (pedido.getTempoQuePediu() != null) {
+            esperaNaFila.record(Duration.between(pedido.getTempoQuePediu(), LocalDateTime.now()));
+        }
     }
 
     @Transactional
@@ -53,7 +119,9 @@ public class PeditoService {
         }
         pedito.setPosicaoFila(maxPosicao + 1);
 
-        return peditosC.save(pedito);
+        Peditos saved = peditosC.save(pedito);
+        userCache.invalidate(user.getId()); // o principal em cache guarda o pedido do usuário
+        return saved;
     }
 
     @Transactional
@@ -63,6 +131,7 @@ public class PeditoService {
             return null;
         }
         Peditos proximo = fila.get(0);
+        registrarEspera(proximo);
         proximo.setStatus(com.blog.eu.enuns.StatusPedido.PROCESSANDO);
         peditosC.save(proximo);
         
@@ -92,9 +161,11 @@ public Peditos finalizarEExcluir(Long pedidoId) {
     User user = pedido.getUserQuePediu();
     if (user != null) {
         user.setPedito(null); // Se User tiver campo pedito
+        userCache.invalidate(user.getId());
     }
 
     int posicaoRemovida = pedido.getPosicaoFila();
+    registrarEspera(pedido);
 
     peditosC.delete(pedido);
 
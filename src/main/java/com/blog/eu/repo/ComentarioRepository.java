@@ -1,16 +1,119 @@
 package com.blog.eu.repo;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.blog.eu.dto.ComentarioExportDTO;
+import com.blog.eu.dto.ComentarioFlatDTO;
+import com.blog.eu.dto.ComentarioResumoDTO;
 import com.blog.eu.model.Comentario;
 import com.blog.eu.model.Post;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
     List<Comentario> findByPost(com.blog.eu.model.Post post);
     List<Comentario> findByPostAndParentIsNull(Post post);
 
+    /**
+     * Carrega, em uma única consulta, todos os comentários (de qualquer nível)
+     * dos posts informados, já com os dados do autor.
+     * Ordenado por id para que pais venham antes das respostas.
+     */
+    @Query("""
+        select new com.blog.eu.dto.ComentarioFlatDTO(
+            c.id, c.post.id, pai.id, c.texto, c.dataCriacao, c.modificado, c.replyCount,
+            a.id, a.displayName, a.avatarUrl)
+        from Comentario c join c.autor a left join c.parent pai
+        where c.post.id in :postIds
+        order by c.id
+        """)
+    List<ComentarioFlatDTO> findFlatByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Carrega a subárvore de um comentário (ele próprio e seus descendentes)
+     * em uma única consulta por faixa no índice do caminho materializado.
+     * O resultado vem em ordem de profundidade (depth-first).
+     *
+     * @param prefix   caminho do comentário raiz da subárvore
+     * @param maxDepth profundidade absoluta máxima incluída
+     */
+    @Query("""
+        select new com.blog.eu.dto.ComentarioFlatDTO(
+            c.id, c.post.id, pai.id, c.texto, c.dataCriacao, c.modificado, c.replyCount,
+            a.id, a.displayName, a.avatarUrl)
+        from Comentario c join c.autor a left join c.parent pai
+        where c.path like concat(:prefix, '%') and c.depth <= :maxDepth
+        order by c.path
+        """)
+    List<ComentarioFlatDTO> findSubtreeFlat(@Param("prefix") String prefix, @Param("maxDepth") int maxDepth);
+
+    /** Ids de um comentário e de todos os seus descendentes, pelo caminho materializado. */
+    @Query("select c.id from Comentario c where c.path like concat(:prefix, '%')")
+    List<Long> findSubtreeIds(@Param("prefix") String prefix);
+
+    /** Ajusta o contador de respostas diretas de um comentário. */
+    @Modifying
+    @Query("update Comentario c set c.replyCount = c.replyCount + :delta where c.id = :id")
+    int adjustReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /** Preenche o contador de respostas dos comentários criados antes dele existir. */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update comentarios c
+        left join (select parent_id, count(*) n from comentarios
+                   where parent_id is not null group by parent_id) r on r.parent_id = c.id
+        set c.reply_count = coalesce(r.n, 0)
+        where c.reply_count is null
+        """)
+    int backfillReplyCounts();
+
+    /**
+     * Percorre todos os comentários para o export, sem carregar entidades,
+     * com as linhas entregues uma a uma pelo driver (ver PostRepository#streamForExport).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        select new com.blog.eu.dto.ComentarioExportDTO(
+            c.id, c.post.id, pai.id, c.autor.id, c.texto, c.dataCriacao, c.modificado)
+        from Comentario c left join c.parent pai
+        order by c.id
+        """)
+    Stream<ComentarioExportDTO> streamForExport();
+
+    /**
+     * Próximo lote de comentários sem caminho materializado ou profundidade,
+     * em ordem de criação (paginação por id).
+     */
+    @Query("select c from Comentario c where c.id > :after and (c.path is null or c.depth is null) order by c.id")
+    List<Comentario> findWithoutPathAfter(@Param("after") Long after, Limit limit);
+
+    /** Projeção dos comentários sem respostas aninhadas, com a quantidade de respostas diretas */
+    String RESUMO_SELECT = """
+        select new com.blog.eu.dto.ComentarioResumoDTO(
+            c.id, c.texto, c.dataCriacao, c.modificado,
+            a.id, a.displayName, a.avatarUrl, c.replyCount)
+        from Comentario c join c.autor a
+        """;
+
+    /** Página de comentários raiz de um post, em ordem cronológica, a partir do cursor. */
+    @Query(RESUMO_SELECT + "where c.post.id = :postId and c.parent is null and c.id > :after order by c.id")
+    List<ComentarioResumoDTO> findTopLevelPage(@Param("postId") Long postId, @Param("after") Long after, Limit limit);
+
+    /** Página de respostas diretas de um comentário, em ordem cronológica, a partir do cursor. */
+    @Query(RESUMO_SELECT + "where c.parent.id = :parentId and c.id > :after order by c.id")
+    List<ComentarioResumoDTO> findRepliesPage(@Param("parentId") Long parentId, @Param("after") Long after, Limit limit);
+
 }
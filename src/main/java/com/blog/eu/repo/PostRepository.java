@@ -1,12 +1,91 @@
 package com.blog.eu.repo;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+import com.blog.eu.dto.PostExportDTO;
+import com.blog.eu.dto.PostSummaryDTO;
+import com.blog.eu.dto.PostTextDTO;
 import com.blog.eu.model.Post;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-  
-}
 
+    /** Projeção dos resumos: trecho de até 280 caracteres do conteúdo e contador de comentários */
+    String SUMMARY_SELECT = """
+        select new com.blog.eu.dto.PostSummaryDTO(
+            p.id, p.title, substring(p.content, 1, 280),
+            a.id, a.displayName, a.avatarUrl, p.commentCount)
+        from Post p join p.author a
+        """;
+
+    /** Busca apenas a versão do post, pela PK, sem carregar o post. */
+    @Query("select p.version from Post p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /** Incrementa a versão do post após uma alteração em seus comentários. */
+    @Modifying
+    @Transactional
+    @Query("update Post p set p.version = p.version + 1 where p.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    /**
+     * Ajusta o contador de comentários do post e incrementa sua versão,
+     * após a criação ou exclusão de comentários.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Post p set p.commentCount = p.commentCount + :delta, p.version = p.version + 1 where p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /** Preenche o contador de comentários dos posts criados antes dele existir. */
+    @Modifying
+    @Transactional
+    @Query("update Post p set p.commentCount = (select count(c) from Comentario c where c.post = p) where p.commentCount is null")
+    int backfillCommentCounts();
+
+    /** Primeira página da listagem por cursor (posts mais recentes primeiro). */
+    List<Post> findAllByOrderByIdDesc(Limit limit);
+
+    /** Próximas páginas da listagem por cursor: posts com id menor que o cursor, pelo índice da PK. */
+    List<Post> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    /** Lote de posts (id, título e conteúdo) para a reconstrução do índice de busca. */
+    @Query("select new com.blog.eu.dto.PostTextDTO(p.id, p.title, p.content) from Post p where p.id > :after order by p.id")
+    List<PostTextDTO> findTextsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Percorre todos os posts para o export, sem carregar entidades.
+     * O fetch size Integer.MIN_VALUE faz o driver do MySQL entregar as linhas
+     * uma a uma, em vez de carregar o resultado inteiro na memória.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        select new com.blog.eu.dto.PostExportDTO(p.id, p.title, p.content, p.author.id, p.commentCount, p.version)
+        from Post p order by p.id
+        """)
+    Stream<PostExportDTO> streamForExport();
+
+    /** Primeira página de resumos, sem carregar content nem comments. */
+    @Query(SUMMARY_SELECT + "order by p.id desc")
+    List<PostSummaryDTO> findSummaries(Limit limit);
+
+    /** Próximas páginas de resumos: posts com id menor que o cursor. */
+    @Query(SUMMARY_SELECT + "where p.id < :after order by p.id desc")
+    List<PostSummaryDTO> findSummariesBefore(@Param("after") Long after, Limit limit);
+
+}
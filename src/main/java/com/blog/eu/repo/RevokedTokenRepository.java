@@ -0,0 +1,28 @@
+package com.blog.eu.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.eu.model.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /** Tokens ainda válidos (não expirados), para carregar a revogação em memória */
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    /** Tokens revogados desde o instante informado (sincronização entre instâncias) */
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+
+    /** Remove os registros de tokens já expirados */
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,35 @@
+package com.blog.eu.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.eu.dto.TrafficPointDTO;
+import com.blog.eu.enuns.TrafficGranularity;
+import com.blog.eu.model.TrafficStat;
+
+@Repository
+public interface TrafficStatRepository extends JpaRepository<TrafficStat, Long> {
+
+    /** Série de uma rota (ou "*") no intervalo, usando o índice único (granularity, route, bucket_start) */
+    @Query("""
+        select new com.blog.eu.dto.TrafficPointDTO(t.bucketStart, t.requests, t.errors)
+        from TrafficStat t
+        where t.granularity = :granularity and t.route = :route
+          and t.bucketStart >= :from and t.bucketStart < :to
+        order by t.bucketStart
+        """)
+    List<TrafficPointDTO> findSeries(TrafficGranularity granularity, String route,
+                                     LocalDateTime from, LocalDateTime to);
+
+    /** Remove as linhas de uma granularidade anteriores ao instante informado */
+    @Modifying
+    @Transactional
+    @Query("delete from TrafficStat t where t.granularity = :granularity and t.bucketStart < :before")
+    int deleteOlderThan(TrafficGranularity granularity, LocalDateTime before);
+}
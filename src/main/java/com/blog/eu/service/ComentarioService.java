@@ -0,0 +1,238 @@
+package com.blog.eu.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.eu.exepitons.launch.Invalid;
+import com.blog.eu.model.Comentario;
+import com.blog.eu.model.Post;
+import com.blog.eu.model.User;
+import com.blog.eu.repo.ComentarioRepository;
+import com.blog.eu.repo.PostRepository;
+
+/**
+ * Serviço responsável pelas operações de escrita em comentários.
+ *
+ * Além de salvar o comentário, cada operação mantém os dados derivados
+ * do post e da thread na mesma transação:
+ * - caminho materializado (path) e profundidade (depth) do comentário
+ * - contador de comentários do post e de respostas do comentário pai
+ * - versão do post, usada nos ETags
+ * - invalidação do post no {@link PostCache}
+ * - atualização do índice de busca ({@link SearchIndexService})
+ *
+ * As verificações de autorização (autor do comentário) ficam no controlador.
+ *
+ * @author Luis
+ * @see Comentario#getPath()
+ */
+@Service
+public class ComentarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComentarioService.class);
+
+    /** Largura fixa de cada segmento do caminho (id em base 36) */
+    private static final int PATH_SEGMENT_WIDTH = 10;
+
+    /** Profundidade máxima de uma thread (limitada pelo tamanho da coluna path) */
+    public static final int MAX_DEPTH = 60;
+
+    /** Tamanho do lote no preenchimento dos caminhos de comentários antigos */
+    private static final int BACKFILL_BATCH = 500;
+
+    private static final DateTimeFormatter DATA_FORMATO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final ComentarioRepository comentarioRepository;
+    private final PostRepository postRepository;
+    private final PostCache postCache;
+    private final SearchIndexService searchIndex;
+    private final TransactionTemplate transaction;
+
+    public ComentarioService(ComentarioRepository comentarioRepository, PostRepository postRepository,
+                             PostCache postCache, SearchIndexService searchIndex,
+                             PlatformTransactionManager transactionManager) {
+        this.comentarioRepository = comentarioRepository;
+        this.postRepository = postRepository;
+        this.postCache = postCache;
+        this.searchIndex = searchIndex;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cria um comentário raiz em um post.
+     *
+     * @param post    post comentado
+     * @param autor   autor do comentário
+     * @param comment dados do comentário
+     * @return comentário salvo
+     */
+    @Transactional
+    public Comentario criar(Post post, User autor, Comentario comment) {
+        comment.setPost(post);
+        comment.setParent(null);
+        comment.setAutor(autor);
+        comment.setDataCriacao(LocalDateTime.now().format(DATA_FORMATO));
+
+        Comentario saved = comentarioRepository.save(comment);
+        saved.setPath(segment(saved.getId()));
+        saved.setDepth(0);
+
+        searchIndex.indexComment(saved.getId(), post.getId(), saved.getTexto());
+        postRepository.adjustCommentCount(post.getId(), 1);
+        postCache.invalidate(post.getId());
+        return saved;
+    }
+
+    /**
+     * Cria uma resposta a um comentário existente.
+     *
+     * O caminho da resposta é o caminho do pai acrescido do id da resposta.
+     *
+     * @param parent comentário respondido
+     * @param autor  autor da resposta
+     * @param reply  dados da resposta
+     * @return resposta salva
+     * @throws Invalid se a thread já estiver na profundidade máxima
+     */
+    @Transactional
+    public Comentario responder(Comentario parent, User autor, Comentario reply) {
+        preencherCaminho(parent);
+        if (parent.getDepth() >= MAX_DEPTH) {
+            throw new Invalid("A conversa atingiu a profundidade máxima de respostas");
+        }
+        reply.setPost(parent.getPost());
+        reply.setParent(parent);
+        reply.setAutor(autor);
+        reply.setDataCriacao(LocalDateTime.now().format(DATA_FORMATO));
+
+        Comentario saved = comentarioRepository.save(reply);
+        saved.setPath(parent.getPath() + segment(saved.getId()));
+        saved.setDepth(parent.getDepth() + 1);
+
+        searchIndex.indexComment(saved.getId(), parent.getPost().getId(), saved.getTexto());
+        comentarioRepository.adjustReplyCount(parent.getId(), 1);
+        postRepository.adjustCommentCount(parent.getPost().getId(), 1);
+        postCache.invalidate(parent.getPost().getId());
+        return saved;
+    }
+
+    /**
+     * Altera o texto de um comentário e o marca como modificado.
+     *
+     * @param comment comentário editado
+     * @param texto   novo texto
+     * @return comentário salvo
+     */
+    @Transactional
+    public Comentario editar(Comentario comment, String texto) {
+        comment.setTexto(texto);
+        comment.setModificado(true);
+
+        Comentario saved = comentarioRepository.save(comment);
+        searchIndex.indexComment(saved.getId(), comment.getPost().getId(), saved.getTexto());
+        postRepository.incrementVersion(comment.getPost().getId());
+        postCache.invalidate(comment.getPost().getId());
+        return saved;
+    }
+
+    /**
+     * Exclui um comentário e, em cascata, todas as suas respostas.
+     *
+     * O contador do post diminui pela quantidade de comentários removidos
+     * (o comentário e seus descendentes); o do pai, por uma resposta.
+     *
+     * @param comment comentário excluído
+     */
+    @Transactional
+    public void excluir(Comentario comment) {
+        List<Long> removidos = comment.getPath() != null
+                ? comentarioRepository.findSubtreeIds(comment.getPath())
+                : List.of(comment.getId());
+        comentarioRepository.delete(comment);
+        if (comment.getParent() != null) {
+            comentarioRepository.adjustReplyCount(comment.getParent().getId(), -1);
+        }
+        searchIndex.removeComments(comment.getPost().getId(), removidos);
+        postRepository.adjustCommentCount(comment.getPost().getId(), -removidos.size());
+        postCache.invalidate(comment.getPost().getId());
+    }
+
+    /**
+     * Preenche os dados derivados dos comentários criados antes deles existirem:
+     * contadores de comentários e de respostas e o caminho materializado.
+     *
+     * Os comentários são processados em ordem de id, em lotes de
+     * {@value #BACKFILL_BATCH} com uma transação cada, então o pai de cada
+     * resposta já tem o caminho preenchido quando a resposta é processada e
+     * nenhum lote prende muitas linhas ou entidades de uma vez.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencherDadosDerivados() {
+        postRepository.backfillCommentCounts();
+        comentarioRepository.backfillReplyCounts();
+
+        long after = 0L;
+        int total = 0;
+        while (true) {
+            long from = after;
+            List<Long> lote = transaction.execute(status -> {
+                List<Comentario> pendentes = comentarioRepository.findWithoutPathAfter(from, Limit.of(BACKFILL_BATCH));
+                pendentes.forEach(ComentarioService::preencherCaminho);
+                return pendentes.stream().map(Comentario::getId).toList();
+            });
+            if (lote == null || lote.isEmpty()) {
+                break;
+            }
+            total += lote.size();
+            after = lote.get(lote.size() - 1);
+        }
+        if (total > 0) {
+            log.info("Caminho materializado preenchido em {} comentários", total);
+        }
+    }
+
+    /**
+     * Garante o caminho e a profundidade do comentário, preenchendo também os
+     * ancestrais que ainda não os têm (comentários antigos ainda não alcançados
+     * pelo {@link #preencherDadosDerivados()}, que roda depois da inicialização).
+     * Com o caminho já preenchido, a profundidade sai da quantidade de segmentos.
+     */
+    private static void preencherCaminho(Comentario comment) {
+        Deque<Comentario> pendentes = new ArrayDeque<>();
+        for (Comentario c = comment; c != null && (c.getPath() == null || c.getDepth() == null); c = c.getParent()) {
+            pendentes.push(c);
+        }
+        while (!pendentes.isEmpty()) {
+            Comentario c = pendentes.pop();
+            Comentario parent = c.getParent();
+            if (c.getPath() != null) {
+                c.setDepth(c.getPath().length() / (PATH_SEGMENT_WIDTH + 1) - 1);
+            } else if (parent == null) {
+                c.setPath(segment(c.getId()));
+                c.setDepth(0);
+            } else {
+                c.setPath(parent.getPath() + segment(c.getId()));
+                c.setDepth(parent.getDepth() + 1);
+            }
+        }
+    }
+
+    /** Segmento do caminho materializado: id em base 36, com zeros à esquerda, seguido de "/". */
+    static String segment(Long id) {
+        String base36 = Long.toString(id, 36);
+        return "0".repeat(Math.max(0, PATH_SEGMENT_WIDTH - base36.length())) + base36 + "/";
+    }
+}
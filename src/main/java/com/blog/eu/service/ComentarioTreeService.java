@@ -0,0 +1,135 @@
+package com.blog.eu.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.blog.eu.dto.AuthorDTO;
+import com.blog.eu.dto.ComentarioDTO;
+import com.blog.eu.dto.ComentarioFlatDTO;
+import com.blog.eu.infos.RequestTrace;
+import com.blog.eu.model.Comentario;
+import com.blog.eu.repo.ComentarioRepository;
+
+/**
+ * Serviço responsável por montar as árvores de comentários de um conjunto de posts.
+ *
+ * Em vez de buscar os comentários raiz de cada post e percorrer as respostas
+ * de forma preguiçosa (uma consulta por nível), todos os comentários dos posts
+ * são carregados em uma única consulta e a árvore é montada em memória
+ * a partir do parent_id. O custo em round trips é constante, qualquer que seja
+ * a profundidade das conversas.
+ *
+ * A montagem é iterativa (sem recursão), então threads muito profundas não
+ * oferecem risco de estouro de pilha.
+ *
+ * @author Luis
+ * @see ComentarioRepository#findFlatByPostIds(Collection)
+ */
+@Service
+public class ComentarioTreeService {
+
+    private final ComentarioRepository comentarioRepository;
+
+    public ComentarioTreeService(ComentarioRepository comentarioRepository) {
+        this.comentarioRepository = comentarioRepository;
+    }
+
+    /**
+     * Carrega as árvores de comentários dos posts informados.
+     *
+     * @param postIds ids dos posts
+     * @return mapa de id do post para a lista de comentários raiz (com respostas aninhadas);
+     *         posts sem comentários não aparecem no mapa
+     */
+    public Map<Long, List<ComentarioDTO>> loadTrees(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        return buildTrees(comentarioRepository.findFlatByPostIds(postIds));
+    }
+
+    /**
+     * Carrega a árvore de comentários de um único post.
+     *
+     * @param postId id do post
+     * @return lista de comentários raiz do post, com respostas aninhadas
+     */
+    public List<ComentarioDTO> loadTree(Long postId) {
+        return loadTrees(List.of(postId)).getOrDefault(postId, List.of());
+    }
+
+    /**
+     * Carrega a subárvore de um comentário em uma única consulta pelo caminho materializado.
+     *
+     * @param root     comentário raiz da subárvore
+     * @param maxDepth quantidade máxima de níveis abaixo da raiz
+     * @return a raiz com suas respostas aninhadas até a profundidade pedida
+     */
+    public ComentarioDTO loadSubtree(Comentario root, int maxDepth) {
+        if (root.getPath() == null) {
+            // caminho ainda não preenchido (ver ComentarioService#preencherDadosDerivados)
+            return toNode(root);
+        }
+        List<ComentarioFlatDTO> rows = comentarioRepository.findSubtreeFlat(root.getPath(), root.getDepth() + maxDepth);
+        List<ComentarioDTO> roots = buildTrees(rows).getOrDefault(root.getPost().getId(), List.of());
+        return roots.isEmpty() ? toNode(root) : roots.get(0);
+    }
+
+    /** Converte um comentário em nó da árvore, sem respostas. */
+    private ComentarioDTO toNode(Comentario c) {
+        return new ComentarioDTO(
+            c.getId(),
+            c.getTexto(),
+            new AuthorDTO(c.getAutor().getId(), c.getAutor().getDisplayName(), c.getAutor().getAvatarUrl()),
+            c.getDataCriacao(),
+            c.getModificado(),
+            c.getReplyCount() != null ? c.getReplyCount() : 0,
+            new ArrayList<>()
+        );
+    }
+
+    /**
+     * Monta as árvores a partir das linhas achatadas, agrupando as raízes por post.
+     *
+     * Primeiro cria todos os nós (cada um com sua lista de respostas ainda vazia),
+     * depois liga cada nó ao pai. Respostas cujo pai não está no conjunto
+     * são tratadas como raízes.
+     */
+    Map<Long, List<ComentarioDTO>> buildTrees(List<ComentarioFlatDTO> rows) {
+        try (RequestTrace.Span span = RequestTrace.span("service", "ComentarioTreeService.buildTrees")) {
+            return link(rows);
+        }
+    }
+
+    private Map<Long, List<ComentarioDTO>> link(List<ComentarioFlatDTO> rows) {
+        Map<Long, ComentarioDTO> nodes = new HashMap<>(rows.size() * 2);
+        for (ComentarioFlatDTO r : rows) {
+            nodes.put(r.id(), new ComentarioDTO(
+                r.id(),
+                r.texto(),
+                new AuthorDTO(r.autorId(), r.autorNome(), r.autorAvatarUrl()),
+                r.dataCriacao(),
+                r.modificado(),
+                r.replyCount() != null ? r.replyCount() : 0,
+                new ArrayList<>()
+            ));
+        }
+
+        Map<Long, List<ComentarioDTO>> roots = new HashMap<>();
+        for (ComentarioFlatDTO r : rows) {
+            ComentarioDTO node = nodes.get(r.id());
+            ComentarioDTO parent = r.parentId() != null ? nodes.get(r.parentId()) : null;
+            if (parent != null) {
+                parent.respostas().add(node);
+            } else {
+                roots.computeIfAbsent(r.postId(), k -> new ArrayList<>()).add(node);
+            }
+        }
+        return roots;
+    }
+}
@@ -1,22 +1,56 @@
 package com.blog.eu.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import com.blog.eu.infos.RequestTrace;
+
 import jakarta.mail.internet.MimeMessage;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envio de emails HTML.
+ *
+ * Métricas (Micrometer):
+ * - email.envio: duração de cada envio, com a tag resultado (sucesso/falha)
+ * - email.falhas: quantidade de envios que falharam
+ *
+ * @author Luis
+ */
 @Service
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final Timer envioSucesso;
+    private final Timer envioFalha;
+    private final Counter falhas;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
+        this.envioSucesso = timer(meterRegistry, "sucesso");
+        this.envioFalha = timer(meterRegistry, "falha");
+        this.falhas = Counter.builder("email.falhas")
+                .description("Envios de email que falharam")
+                .register(meterRegistry);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String resultado) {
+        return Timer.builder("email.envio")
+                .description("Duração do envio de emails")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public void enviarHtml(String para, String assunto, String html) {
-        try {
+        long start = System.nanoTime();
+        try (RequestTrace.Span span = RequestTrace.span("mail", "EmailService.enviarHtml")) {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper =
                 new MimeMessageHelper(message, true, "UTF-8");
@@ -27,7 +61,10 @@ public class EmailService {
             helper.setFrom("roberdoogarcia@gmail.com"); 
 
             mailSender.send(message);
+            envioSucesso.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
+            envioFalha.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            falhas.increment();
             System.out.println("Erro ao enviar email: " + e.getMessage());
         }
     }
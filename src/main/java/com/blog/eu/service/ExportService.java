@@ -0,0 +1,96 @@
+package com.blog.eu.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.dto.ComentarioExportDTO;
+import com.blog.eu.dto.ExportLineDTO;
+import com.blog.eu.dto.PostExportDTO;
+import com.blog.eu.dto.UserDTO;
+import com.blog.eu.repo.ComentarioRepository;
+import com.blog.eu.repo.PostRepository;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serviço responsável pelo export completo do blog em NDJSON (um objeto JSON por linha).
+ *
+ * O export escreve, nessa ordem, os usuários, os posts e os comentários.
+ * Cada tabela é percorrida com um {@link Stream} do repositório, com as linhas
+ * entregues uma a uma pelo driver e convertidas direto em DTOs (nenhuma
+ * entidade fica no contexto de persistência), então o uso de memória é
+ * constante qualquer que seja o tamanho do blog.
+ *
+ * As três leituras acontecem em uma única transação somente leitura com
+ * isolamento REPEATABLE READ: no InnoDB todas enxergam o mesmo snapshot,
+ * mesmo com escritas acontecendo durante o export.
+ *
+ * @author Luis
+ */
+@Service
+public class ExportService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final ComentarioRepository comentarioRepository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate snapshot;
+
+    public ExportService(UserRepository userRepository, PostRepository postRepository,
+                         ComentarioRepository comentarioRepository, JsonMapper jsonMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.comentarioRepository = comentarioRepository;
+        this.jsonMapper = jsonMapper;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Escreve o export completo no stream informado.
+     *
+     * @param out stream de saída (ex.: corpo da resposta HTTP)
+     * @throws IOException se ocorrer erro de escrita
+     */
+    public void exportar(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        try {
+            snapshot.executeWithoutResult(status -> {
+                try (Stream<UserDTO> users = userRepository.streamForExport()) {
+                    users.forEach(u -> write(buffered, "user", u));
+                }
+                try (Stream<PostExportDTO> posts = postRepository.streamForExport()) {
+                    posts.forEach(p -> write(buffered, "post", p));
+                }
+                try (Stream<ComentarioExportDTO> comments = comentarioRepository.streamForExport()) {
+                    comments.forEach(c -> write(buffered, "comment", c));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    private void write(OutputStream out, String type, Object data) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(new ExportLineDTO(type, data)));
+            out.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.blog.eu.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.io.Decoders;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import com.blog.eu.exepitons.launch.Invalid;
+import com.blog.eu.model.TokenClaims;
+
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
@@ -16,7 +23,8 @@ public class JwtService {
     private final Key key;
     private final long expiresIn;
 
-    
+    /** Parser reutilizável (thread-safe), criado uma única vez */
+    private final JwtParser parser;
 
     public JwtService(
             @Value("${app.jwt.secret}") String secret,
@@ -24,11 +32,15 @@ public class JwtService {
         // O segredo deve estar em Base64 no application.yml
         this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
         this.expiresIn = expiresIn * 1000L; // segundos -> milissegundos
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
-    /** Gera um token JWT com o ID do usuário como subject */
+    /** Gera um token JWT com o ID do usuário como subject e um jti único (usado na revogação) */
     public String generateToken(Long userId, String role) {
     return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(userId.toString())
             .claim("role", role)
             .setIssuedAt(new Date())
@@ -40,21 +52,40 @@ public class JwtService {
 
     /** Extrai o subject (ID do usuário) de um token JWT */
     public Long parseSubject(String token) {
-        var claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return Long.valueOf(claims.getSubject());
+        return Long.valueOf(parseClaims(token).getSubject());
     }
      public Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
     public String parseRole(String token) {
         return parseClaims(token).get("role", String.class);
     }
+
+    /** Verifica o token uma única vez e extrai o subject, a role, o jti e a expiração */
+    public TokenClaims verify(String token) {
+        Claims claims = parseClaims(token);
+        return new TokenClaims(
+            Long.valueOf(claims.getSubject()),
+            claims.get("role", String.class),
+            claims.getId(),
+            claims.getExpiration().toInstant()
+        );
+    }
+
+    /**
+     * Obtém as claims do token da requisição atual, já verificadas pelo
+     * {@link com.blog.eu.model.JwtAuthenticationFilter}, sem analisar o token de novo.
+     *
+     * @return claims do usuário autenticado
+     * @throws Invalid se a requisição não tiver um token válido
+     */
+    public TokenClaims currentClaims() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getDetails() instanceof TokenClaims claims) {
+            return claims;
+        }
+        throw new Invalid("Token ausente ou inválido");
+    }
 }
@@ -0,0 +1,271 @@
+package com.blog.eu.service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.blog.eu.dto.PasswordHashingStatsDTO;
+import com.blog.eu.exepitons.launch.ServicoIndisponivel;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Executa o hashing de senhas (BCrypt) em um pool dedicado e limitado.
+ *
+ * O BCrypt é caro de propósito; rodando nas threads do Tomcat, uma rajada de
+ * logins ocupa todos os workers e trava as leituras do blog. Aqui o cálculo
+ * acontece em um pool com uma thread por núcleo e uma fila limitada: quando
+ * a fila está cheia a tarefa é recusada na hora com
+ * {@link ServicoIndisponivel} (HTTP 503), em vez de acumular requisições.
+ *
+ * O custo do BCrypt é calibrado ao iniciar: o maior custo cujo hash leva até
+ * app.security.bcrypt.target-ms na máquina atual (cada +1 dobra o tempo).
+ * Hashes gravados com outro custo são refeitos no próximo login bem-sucedido
+ * (veja {@link #needsRehash(String)}), então mudar o alvo não exige reset de senhas.
+ *
+ * Importações em massa usam {@link #encodeAll(List)}, que roda em um pool
+ * separado para não disputar a fila dos logins.
+ *
+ * Mantém métricas de profundidade da fila, tempo de espera e tempo de hash,
+ * e da ocupação e vazão do pool de importação.
+ *
+ * Configuração:
+ * - app.security.bcrypt.target-ms: tempo alvo de um hash (padrão 100)
+ * - app.security.bcrypt.cost: custo fixo, ignorando a calibração (padrão 0 = calibrar)
+ * - app.security.bcrypt.min-cost / max-cost: limites da calibração (padrão 10 e 16)
+ * - app.security.hashing.threads: threads do pool (padrão: núcleos disponíveis)
+ * - app.security.hashing.queue-size: tamanho da fila (padrão 64)
+ * - app.security.hashing.timeout-ms: espera máxima da requisição por um hash, na fila e no cálculo (padrão 500)
+ * - app.security.hashing.bulk-threads: threads do pool de importação (padrão: núcleos - 1)
+ *
+ * @author Luis
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    /** Custo usado na medição da calibração */
+    private static final int PROBE_COST = 10;
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final ForkJoinPool bulkPool;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder bulkCompleted = new LongAdder();
+    private final LongAdder bulkHashNanos = new LongAdder();
+
+    public PasswordHashingService(
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-size:64}") int queueSize,
+            @Value("${app.security.hashing.timeout-ms:500}") long timeoutMs,
+            @Value("${app.security.bcrypt.target-ms:100}") long targetMs,
+            @Value("${app.security.bcrypt.cost:0}") int fixedCost,
+            @Value("${app.security.bcrypt.min-cost:10}") int minCost,
+            @Value("${app.security.bcrypt.max-cost:16}") int maxCost,
+            @Value("${app.security.hashing.bulk-threads:0}") int bulkThreads) {
+        this.cost = fixedCost > 0 ? fixedCost : calibrate(targetMs, minCost, maxCost);
+        this.encoder = new BCryptPasswordEncoder(cost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueSize;
+        this.timeoutMs = timeoutMs;
+        AtomicLong sequence = new AtomicLong();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            r -> Thread.ofPlatform().name("password-hash-" + sequence.incrementAndGet()).daemon().unstarted(r),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.bulkPool = new ForkJoinPool(bulkThreads > 0
+                ? bulkThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Gera o hash da senha.
+     *
+     * @param rawPassword senha em texto puro
+     * @return hash BCrypt
+     * @throws ServicoIndisponivel se o pool estiver saturado
+     */
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Gera os hashes de várias senhas em paralelo, no pool de importação.
+     * Bloqueia até todos ficarem prontos.
+     *
+     * @param rawPasswords senhas em texto puro
+     * @return hashes BCrypt, na mesma ordem
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        return bulkPool.submit(() -> rawPasswords.parallelStream().map(this::encodeBulk).toList()).join();
+    }
+
+    private String encodeBulk(String rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return encoder.encode(rawPassword);
+        } finally {
+            bulkHashNanos.add(System.nanoTime() - start);
+            bulkCompleted.increment();
+        }
+    }
+
+    /**
+     * Verifica a senha contra o hash armazenado.
+     *
+     * @param rawPassword     senha em texto puro
+     * @param encodedPassword hash armazenado
+     * @return true se a senha confere
+     * @throws ServicoIndisponivel se o pool estiver saturado
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica se o hash foi gerado com um custo diferente do atual e deve ser
+     * refeito (com a senha em texto puro, após um login bem-sucedido).
+     *
+     * @param encodedPassword hash armazenado
+     * @return true se o custo do hash é diferente do custo configurado
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return costOf(encodedPassword) != cost;
+    }
+
+    /** @return custo do BCrypt em uso */
+    public int getCost() {
+        return cost;
+    }
+
+    /** @return métricas atuais dos pools */
+    public PasswordHashingStatsDTO stats() {
+        long done = completed.sum();
+        long bulkDone = bulkCompleted.sum();
+        return new PasswordHashingStatsDTO(
+            cost,
+            executor.getMaximumPoolSize(),
+            executor.getActiveCount(),
+            executor.getQueue().size(),
+            queueCapacity,
+            done,
+            rejected.sum(),
+            done == 0 ? 0.0 : waitNanos.sum() / 1e6 / done,
+            done == 0 ? 0.0 : hashNanos.sum() / 1e6 / done,
+            maxHashNanos.get() / 1e6,
+            bulkPool.getParallelism(),
+            bulkPool.getActiveThreadCount(),
+            bulkPool.getQueuedTaskCount() + bulkPool.getQueuedSubmissionCount(),
+            bulkDone,
+            bulkDone == 0 ? 0.0 : bulkHashNanos.sum() / 1e6 / bulkDone,
+            bulkPool.getStealCount()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        bulkPool.shutdownNow();
+    }
+
+    /**
+     * Mede um hash no custo {@link #PROBE_COST} e escolhe o maior custo que
+     * fica dentro do tempo alvo, dentro dos limites informados.
+     */
+    private static int calibrate(long targetMs, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_COST);
+        probe.encode("calibracao"); // aquecimento do JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibracao");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double probeMs = Math.max(best / 1e6, 0.001);
+        int chosen = PROBE_COST + (int) Math.floor(Math.log(targetMs / probeMs) / Math.log(2));
+        chosen = Math.max(minCost, Math.min(maxCost, chosen));
+        log.info("Custo do BCrypt calibrado: {} (custo {} levou {} ms, alvo {} ms)",
+                chosen, PROBE_COST, String.format("%.1f", probeMs), targetMs);
+        return chosen;
+    }
+
+    /** Lê o custo de um hash BCrypt ($2a$10$...); -1 se o formato não for reconhecido */
+    private static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int sep = encodedPassword.indexOf('$', 1);
+        if (sep < 0 || sep + 3 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(sep + 1, sep + 3));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                waitNanos.add(start - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServicoIndisponivel("Servidor ocupado, tente novamente em instantes");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServicoIndisponivel("Servidor ocupado, tente novamente em instantes");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivel("Requisição interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
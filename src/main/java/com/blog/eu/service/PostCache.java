@@ -0,0 +1,71 @@
+package com.blog.eu.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.blog.eu.cache.TtlCache;
+import com.blog.eu.dto.CacheStatsDTO;
+import com.blog.eu.dto.PostDTO;
+
+/**
+ * Cache read-through dos posts já montados ({@link PostDTO} com a árvore de comentários).
+ *
+ * Usado por GET /api/blog/{postId}. Cada entrada guarda a versão do post
+ * ({@link com.blog.eu.model.Post#getVersion()}) a partir da qual foi montada.
+ * As operações que alteram um post ou seus comentários invalidam apenas a
+ * entrada do post afetado. Alterações de perfil
+ * do autor não invalidam: elas aparecem quando a entrada expira pelo TTL.
+ *
+ * Configuração:
+ * - app.cache.posts.max-size: quantidade máxima de posts em cache (padrão 500)
+ * - app.cache.posts.ttl-seconds: tempo de vida de cada entrada (padrão 300)
+ *
+ * @author Luis
+ * @see TtlCache
+ */
+@Component
+public class PostCache {
+
+    /** Post montado junto com a versão do post no momento da leitura */
+    private record VersionedPost(long version, PostDTO post) {}
+
+    private final TtlCache<Long, VersionedPost> cache;
+
+    public PostCache(
+            @Value("${app.cache.posts.max-size:500}") int maxSize,
+            @Value("${app.cache.posts.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new TtlCache<>(maxSize, ttlSeconds);
+    }
+
+    /**
+     * Obtém o post do cache ou o monta com o loader informado.
+     *
+     * A entrada só é usada se foi montada a partir da mesma versão do post;
+     * caso contrário o post é montado novamente e substitui a entrada.
+     * Como a versão é lida antes do conteúdo, o conteúdo armazenado nunca é
+     * mais antigo do que a versão associada a ele. Um post montado enquanto
+     * a entrada era invalidada é devolvido, mas não é armazenado
+     * (ver {@link TtlCache#getOrLoad(Object, java.util.function.Predicate, Supplier)}).
+     *
+     * @param postId  id do post
+     * @param version versão atual do post
+     * @param loader  função que monta o post quando ele não está no cache
+     * @return post montado
+     */
+    public PostDTO getOrLoad(Long postId, long version, Supplier<PostDTO> loader) {
+        return cache.getOrLoad(postId, cached -> cached.version() == version,
+                () -> new VersionedPost(version, loader.get())).post();
+    }
+
+    /** Remove o post do cache após uma alteração no post ou em seus comentários. */
+    public void invalidate(Long postId) {
+        cache.invalidate(postId);
+    }
+
+    /** @return estatísticas de uso do cache */
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.of(cache);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.config.OAuth2UserServiceImpl;
 import com.blog.eu.model.Photo;
 import com.blog.eu.model.User;
 import com.blog.eu.repo.PhotoRepository;
@@ -21,6 +22,8 @@ public class ProfileService {
 
     private final UserRepository userRepo;
     private final PhotoRepository photoRepo;
+    private final UserPrincipalCache userCache;
+    private final OAuth2UserServiceImpl oAuth2UserService;
 
     @Value("${app.upload.dir}")
     private String uploadDir;
@@ -28,9 +31,12 @@ public class ProfileService {
     @Value("${app.base-url}")
     private String baseUrl;
 
-    public ProfileService(UserRepository userRepo, PhotoRepository photoRepo) {
+    public ProfileService(UserRepository userRepo, PhotoRepository photoRepo, UserPrincipalCache userCache,
+                          OAuth2UserServiceImpl oAuth2UserService) {
         this.userRepo = userRepo;
         this.photoRepo = photoRepo;
+        this.userCache = userCache;
+        this.oAuth2UserService = oAuth2UserService;
     }
 
     public User getMe(Long userId) {
@@ -44,7 +50,7 @@ public class ProfileService {
         if (bio != null) u.setBio(bio);
         if (location != null) u.setLocation(location);
         if (website != null) u.setWebsite(website);
-        return userRepo.save(u);
+        return save(u);
     }
 
     public User uploadPhoto(Long userId, MultipartFile file, boolean isAvatar) throws IOException {
@@ -69,7 +75,7 @@ public class ProfileService {
         u.setPhotos(p);
         if (isAvatar) u.setAvatarUrl(url);
 
-        return userRepo.save(u);
+        return save(u);
     }
 
     public User setAvatar(Long userId, String photoKey) {
@@ -81,7 +87,7 @@ public class ProfileService {
         u.setPhotos(photo);
         u.setAvatarUrl(photo.getUrl());
 
-        return userRepo.save(u);
+        return save(u);
     }
 
    public User deletePhoto(Long userId) {
@@ -97,10 +103,18 @@ public class ProfileService {
     u.setPhotos(null);
     if (wasAvatar) u.setAvatarUrl(null);
 
-    return userRepo.save(u);
+    return save(u);
 }
 
 
+    private User save(User u) {
+        User saved = userRepo.save(u);
+        userCache.invalidate(saved.getId());
+        // nome e avatar também ficam no cache do login social
+        oAuth2UserService.invalidate(saved.getEmail());
+        return saved;
+    }
+
     private String getExtension(String filename) {
         if (filename == null) return null;
         int idx = filename.lastIndexOf('.');
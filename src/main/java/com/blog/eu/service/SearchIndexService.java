@@ -0,0 +1,486 @@
+package com.blog.eu.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blog.eu.dto.ComentarioFlatDTO;
+import com.blog.eu.dto.PostTextDTO;
+import com.blog.eu.dto.SearchHitDTO;
+import com.blog.eu.dto.SearchResultsDTO;
+import com.blog.eu.repo.ComentarioRepository;
+import com.blog.eu.repo.PostRepository;
+
+/**
+ * Índice invertido em memória para busca textual em posts e comentários.
+ *
+ * Indexa {@code Post.title}, {@code Post.content} e {@code Comentario.texto}.
+ * O texto é normalizado (minúsculas, sem acentos) e quebrado em termos; para
+ * cada termo o índice guarda os documentos em que ele aparece e sua frequência.
+ * Os resultados são ordenados por BM25, com peso dobrado para termos do título.
+ *
+ * O índice é atualizado incrementalmente pelas operações de escrita
+ * (criação, edição e exclusão de posts e comentários); dentro de uma transação
+ * a atualização só é aplicada depois do commit, para que uma escrita desfeita
+ * não apareça na busca. O índice é reconstruído a partir
+ * dos repositórios ao iniciar a aplicação, em uma thread de fundo. Durante a
+ * reconstrução, os documentos alterados ou excluídos pelas operações de
+ * escrita são marcados, e a reconstrução não os sobrescreve com as linhas
+ * (possivelmente antigas) que leu antes da alteração. Enquanto ela não termina,
+ * os resultados da busca saem com indexReady = false.
+ *
+ * De cada documento o índice guarda só os termos, o tamanho e o início do
+ * texto (até app.search.stored-chars caracteres), de onde sai o trecho exibido
+ * no resultado; o texto completo fica só no banco.
+ *
+ * Configuração:
+ * - app.search.rebuild-on-startup: reconstrói o índice ao iniciar (padrão true)
+ * - app.search.stored-chars: caracteres do texto guardados por documento para o trecho (padrão 300)
+ *
+ * @author Luis
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    /** Parâmetros do BM25 */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** Tamanho do lote de posts na reconstrução do índice */
+    private static final int REBUILD_BATCH = 200;
+
+    private static final int SNIPPET_BEFORE = 60;
+    private static final int SNIPPET_AFTER = 120;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "de", "da", "do", "das", "dos", "que", "em", "um", "uma", "para", "com",
+        "os", "as", "no", "na", "nos", "nas", "por", "se", "ao", "the", "and", "of", "to"
+    );
+
+    /**
+     * Documento indexado: um post ou um comentário, com seus termos e as
+     * frequências deles (arrays paralelos) e só o início do texto.
+     */
+    private record Doc(String tipo, long id, long postId, String text, int length, String[] terms, int[] tf) {}
+
+    /** termo -> (chave do documento -> frequência) */
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    /** chave do documento -> documento */
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    /** id do post -> título (para exibir nos resultados de comentários) */
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+    /** id do post -> chaves dos comentários do post */
+    private final Map<Long, Set<Long>> postComments = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+
+    /** Chaves alteradas pelas escritas durante a reconstrução (protegido por this) */
+    private final Set<Long> touched = new HashSet<>();
+    private boolean rebuilding;
+
+    private final PostRepository postRepository;
+    private final ComentarioRepository comentarioRepository;
+    private final boolean rebuildOnStartup;
+    private final int storedChars;
+    private volatile boolean ready;
+
+    public SearchIndexService(PostRepository postRepository, ComentarioRepository comentarioRepository,
+                              @Value("${app.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                              @Value("${app.search.stored-chars:300}") int storedChars) {
+        this.postRepository = postRepository;
+        this.comentarioRepository = comentarioRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.storedChars = Math.max(storedChars, 0);
+    }
+
+    /** Chave de documento de um post (pares) */
+    private static long postKey(long id) { return id * 2; }
+
+    /** Chave de documento de um comentário (ímpares) */
+    private static long commentKey(long id) { return id * 2 + 1; }
+
+    /**
+     * Indexa (ou reindexa) um post.
+     *
+     * @param id      id do post
+     * @param title   título
+     * @param content conteúdo
+     */
+    public void indexPost(Long id, String title, String content) {
+        afterCommit(() -> {
+            Doc doc = postDoc(id, title, content);
+            synchronized (this) {
+                touch(postKey(id));
+                putPost(doc, title);
+            }
+        });
+    }
+
+    /**
+     * Indexa (ou reindexa) um comentário.
+     *
+     * @param id     id do comentário
+     * @param postId id do post do comentário
+     * @param texto  texto do comentário
+     */
+    public void indexComment(Long id, Long postId, String texto) {
+        afterCommit(() -> {
+            Doc doc = commentDoc(id, postId, texto);
+            synchronized (this) {
+                touch(commentKey(id));
+                putComment(doc);
+            }
+        });
+    }
+
+    /** Remove um post e todos os seus comentários do índice. */
+    public void removePost(Long id) {
+        afterCommit(() -> removePostNow(id));
+    }
+
+    /** Remove os comentários informados do índice. */
+    public void removeComments(Long postId, Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        afterCommit(() -> removeCommentsNow(postId, copy));
+    }
+
+    /**
+     * Executa a atualização do índice depois do commit da transação atual,
+     * ou imediatamente se não houver transação.
+     */
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private synchronized void removePostNow(Long id) {
+        touch(postKey(id));
+        remove(postKey(id));
+        titles.remove(id);
+        Set<Long> comments = postComments.remove(id);
+        if (comments != null) {
+            for (Long key : comments) {
+                touch(key);
+                remove(key);
+            }
+        }
+    }
+
+    private synchronized void removeCommentsNow(Long postId, Collection<Long> ids) {
+        Set<Long> comments = postComments.get(postId);
+        for (Long id : ids) {
+            touch(commentKey(id));
+            remove(commentKey(id));
+            if (comments != null) {
+                comments.remove(commentKey(id));
+            }
+        }
+    }
+
+    /**
+     * Busca os documentos que contêm algum dos termos da consulta.
+     *
+     * @param query texto da consulta
+     * @param page  número da página (a partir de 0)
+     * @param size  quantidade de resultados por página
+     * @return resultados da página, ordenados por relevância
+     */
+    public SearchResultsDTO search(String query, int page, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        int n = Math.max(docs.size(), 1);
+        double avgLength = Math.max((double) totalLength.get() / n, 1.0);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Integer> docsWithTerm = postings.get(term);
+            if (docsWithTerm == null) {
+                continue;
+            }
+            int df = docsWithTerm.size();
+            double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            docsWithTerm.forEach((key, tf) -> {
+                Doc doc = docs.get(key);
+                if (doc == null) {
+                    return;
+                }
+                double norm = tf + K1 * (1 - B + B * doc.length() / avgLength);
+                scores.merge(key, idf * tf * (K1 + 1) / norm, Double::sum);
+            });
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+        List<SearchHitDTO> hits = new ArrayList<>();
+        long from = (long) page * size;
+        long to = Math.min(from + size, ranked.size());
+        for (int i = (int) Math.min(from, to); i < to; i++) {
+            Doc doc = docs.get(ranked.get(i).getKey());
+            if (doc == null) {
+                continue;
+            }
+            hits.add(new SearchHitDTO(
+                doc.tipo(),
+                doc.id(),
+                doc.postId(),
+                titles.get(doc.postId()),
+                snippet(doc.text(), terms),
+                ranked.get(i).getValue()
+            ));
+        }
+        return new SearchResultsDTO(query, ranked.size(), page, size, ready, hits);
+    }
+
+    /** @return true quando a reconstrução inicial do índice terminou */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Dispara a reconstrução do índice em uma thread de fundo ao iniciar a aplicação. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            ready = true;
+            return;
+        }
+        Thread.ofPlatform().name("search-index-rebuild").daemon().start(this::rebuild);
+    }
+
+    /**
+     * Reconstrói o índice a partir dos repositórios, em lotes de posts
+     * (com os comentários de cada lote carregados em uma única consulta).
+     *
+     * Documentos alterados pelas escritas desde o início da reconstrução são
+     * pulados: o índice já tem a versão mais nova (ou a exclusão) deles.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long after = 0L;
+        int posts = 0;
+        int comments = 0;
+        synchronized (this) {
+            rebuilding = true;
+            touched.clear();
+        }
+        try {
+            while (true) {
+                List<PostTextDTO> batch = postRepository.findTextsAfter(after, Limit.of(REBUILD_BATCH));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Doc> postDocs = new ArrayList<>(batch.size());
+                for (PostTextDTO p : batch) {
+                    postDocs.add(postDoc(p.id(), p.title(), p.content()));
+                }
+                synchronized (this) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (!touched.contains(postKey(batch.get(i).id()))) {
+                            putPost(postDocs.get(i), batch.get(i).title());
+                        }
+                    }
+                }
+                List<ComentarioFlatDTO> rows = comentarioRepository.findFlatByPostIds(
+                        batch.stream().map(PostTextDTO::id).toList());
+                List<Doc> commentDocs = new ArrayList<>(rows.size());
+                for (ComentarioFlatDTO c : rows) {
+                    commentDocs.add(commentDoc(c.id(), c.postId(), c.texto()));
+                }
+                synchronized (this) {
+                    for (Doc doc : commentDocs) {
+                        if (!touched.contains(commentKey(doc.id())) && !postRemoved(doc.postId())) {
+                            putComment(doc);
+                        }
+                    }
+                }
+                posts += batch.size();
+                comments += rows.size();
+                after = batch.get(batch.size() - 1).id();
+            }
+            log.info("Índice de busca reconstruído: {} posts, {} comentários em {} ms",
+                    posts, comments, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Falha ao reconstruir o índice de busca", e);
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+                touched.clear();
+            }
+            ready = true;
+        }
+    }
+
+    private Doc postDoc(Long id, String title, String content) {
+        Map<String, Integer> tf = new HashMap<>();
+        int length = addTerms(tf, title, 2) + addTerms(tf, content, 1);
+        return doc("POST", id, id, stored(content), length, tf);
+    }
+
+    private Doc commentDoc(Long id, Long postId, String texto) {
+        Map<String, Integer> tf = new HashMap<>();
+        int length = addTerms(tf, texto, 1);
+        return doc("COMENTARIO", id, postId, stored(texto), length, tf);
+    }
+
+    private static Doc doc(String tipo, long id, long postId, String text, int length, Map<String, Integer> tf) {
+        String[] terms = new String[tf.size()];
+        int[] freqs = new int[tf.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : tf.entrySet()) {
+            terms[i] = e.getKey();
+            freqs[i++] = e.getValue();
+        }
+        return new Doc(tipo, id, postId, text, length, terms, freqs);
+    }
+
+    /** @return início do texto guardado no índice para o trecho do resultado */
+    private String stored(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() > storedChars ? text.substring(0, storedChars) : text;
+    }
+
+    /** Marca a chave como alterada, se houver uma reconstrução em andamento (com o lock). */
+    private void touch(long key) {
+        if (rebuilding) {
+            touched.add(key);
+        }
+    }
+
+    /** @return true se o post foi excluído durante a reconstrução (com o lock) */
+    private boolean postRemoved(long postId) {
+        return touched.contains(postKey(postId)) && !docs.containsKey(postKey(postId));
+    }
+
+    /** Indexa um post (com o lock). */
+    private void putPost(Doc doc, String title) {
+        titles.put(doc.id(), title != null ? title : "");
+        put(postKey(doc.id()), doc);
+    }
+
+    /** Indexa um comentário (com o lock). */
+    private void putComment(Doc doc) {
+        put(commentKey(doc.id()), doc);
+        postComments.computeIfAbsent(doc.postId(), k -> ConcurrentHashMap.newKeySet()).add(commentKey(doc.id()));
+    }
+
+    private void put(long key, Doc doc) {
+        remove(key);
+        docs.put(key, doc);
+        totalLength.addAndGet(doc.length());
+        for (int i = 0; i < doc.terms().length; i++) {
+            postings.computeIfAbsent(doc.terms()[i], k -> new ConcurrentHashMap<>()).put(key, doc.tf()[i]);
+        }
+    }
+
+    private void remove(long key) {
+        Doc old = docs.remove(key);
+        if (old == null) {
+            return;
+        }
+        totalLength.addAndGet(-old.length());
+        for (String term : old.terms()) {
+            postings.computeIfPresent(term, (k, docsWithTerm) -> {
+                docsWithTerm.remove(key);
+                return docsWithTerm.isEmpty() ? null : docsWithTerm;
+            });
+        }
+    }
+
+    /** Soma os termos do texto na tabela de frequências, com o peso informado. */
+    private static int addTerms(Map<String, Integer> tf, String text, int weight) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            tf.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    /** Quebra o texto em termos normalizados, ignorando termos curtos e stopwords. */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String term = folded.substring(start, i);
+                if (term.length() > 1 && !STOPWORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Normaliza o texto caractere a caractere (minúsculas e sem acentos),
+     * preservando o tamanho para que as posições valham também no texto original.
+     */
+    private static String fold(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                sb.append(Character.toLowerCase(c));
+            } else {
+                String d = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                sb.append(Character.toLowerCase(d.charAt(0)));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Recorta o trecho do texto em torno da primeira ocorrência de um dos termos. */
+    private static String snippet(String text, List<String> terms) {
+        String folded = fold(text);
+        int pos = -1;
+        for (String term : terms) {
+            int idx = folded.indexOf(term);
+            if (idx >= 0 && (pos < 0 || idx < pos)) {
+                pos = idx;
+            }
+        }
+        if (pos < 0) {
+            pos = 0;
+        }
+        int from = Math.max(0, pos - SNIPPET_BEFORE);
+        int to = Math.min(text.length(), pos + SNIPPET_AFTER);
+        return (from > 0 ? "…" : "") + text.substring(from, to).strip() + (to < text.length() ? "…" : "");
+    }
+}
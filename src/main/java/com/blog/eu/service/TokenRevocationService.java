@@ -0,0 +1,152 @@
+package com.blog.eu.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.eu.cache.BloomFilter;
+import com.blog.eu.model.RevokedToken;
+import com.blog.eu.model.TokenClaims;
+import com.blog.eu.repo.RevokedTokenRepository;
+
+/**
+ * Revogação de tokens JWT (logout) sem consulta ao banco por requisição.
+ *
+ * Os tokens revogados são gravados na tabela revoked_tokens e mantidos em
+ * memória em duas estruturas:
+ * - um {@link BloomFilter}, que responde sem lock e em poucos nanossegundos
+ *   que um token nunca revogado (o caso comum) não está na lista;
+ * - um conjunto exato (jti -> expiração), consultado só quando o filtro
+ *   responde "talvez", para descartar os falsos positivos.
+ *
+ * A lista é carregada do banco ao iniciar a aplicação e sincronizada
+ * periodicamente, para enxergar revogações feitas por outras instâncias.
+ * Os tokens expirados são removidos do banco e da memória pela limpeza
+ * periódica, que reconstrói o filtro (filtros de Bloom não removem itens).
+ *
+ * Tokens emitidos antes da claim jti existir não podem ser revogados e
+ * continuam valendo até expirar.
+ *
+ * Configuração:
+ * - app.jwt.revocation.expected-tokens: capacidade do filtro (padrão 100000)
+ * - app.jwt.revocation.sync-ms: intervalo da sincronização (padrão 30000)
+ * - app.jwt.revocation.purge-ms: intervalo da limpeza (padrão 3600000)
+ *
+ * @author Luis
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    /** Sobreposição da sincronização, para cobrir transações lentas e diferença de relógio */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository repository;
+    private final int expectedTokens;
+
+    /** jti -> expiração do token */
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+            @Value("${app.jwt.revocation.expected-tokens:100000}") int expectedTokens) {
+        this.repository = repository;
+        this.expectedTokens = expectedTokens;
+        this.filter = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Verifica se o token foi revogado, sem acessar o banco.
+     *
+     * @param jti claim jti do token (pode ser null em tokens antigos)
+     * @return true se o token foi revogado
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoga o token: grava no banco e adiciona à lista em memória.
+     *
+     * @param claims claims do token a ser revogado
+     */
+    public void revoke(TokenClaims claims) {
+        if (claims.jti() == null || isRevoked(claims.jti())) {
+            return;
+        }
+        repository.save(new RevokedToken(claims.jti(), claims.expiresAt(), Instant.now()));
+        add(claims.jti(), claims.expiresAt());
+    }
+
+    /** Carrega os tokens revogados ainda válidos ao iniciar a aplicação. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant start = Instant.now();
+        List<RevokedToken> tokens = repository.findByExpiresAtAfter(start);
+        tokens.forEach(t -> add(t.getJti(), t.getExpiresAt()));
+        lastSync = start;
+        log.info("Revogação de tokens carregada: {} tokens", tokens.size());
+    }
+
+    /** Busca as revogações feitas por outras instâncias desde a última sincronização. */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-ms:30000}",
+               initialDelayString = "${app.jwt.revocation.sync-ms:30000}")
+    public void sync() {
+        Instant start = Instant.now();
+        for (RevokedToken t : repository.findByRevokedAtAfter(lastSync.minus(SYNC_OVERLAP))) {
+            if (!revoked.containsKey(t.getJti())) {
+                add(t.getJti(), t.getExpiresAt());
+            }
+        }
+        lastSync = start;
+    }
+
+    /** Remove os tokens expirados do banco e da memória e reconstrói o filtro. */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-ms:3600000}",
+               initialDelayString = "${app.jwt.revocation.purge-ms:3600000}")
+    public void purge() {
+        Instant now = Instant.now();
+        int deleted = repository.deleteExpired(now);
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+        if (deleted > 0) {
+            log.info("Tokens revogados expirados removidos: {}", deleted);
+        }
+    }
+
+    /** @return quantidade de tokens revogados em memória */
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Adiciona primeiro ao conjunto exato e depois ao filtro, para que uma
+     * consulta concorrente que passe pelo filtro sempre encontre o token.
+     * Sincronizado com a reconstrução do filtro na limpeza.
+     */
+    private synchronized void add(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        filter.put(jti);
+    }
+}
@@ -0,0 +1,363 @@
+package com.blog.eu.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.dto.ImportResultDTO;
+import com.blog.eu.dto.ImportSummaryDTO;
+import com.blog.eu.dto.ImportUserDTO;
+import com.blog.eu.model.Role;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Importação em massa de usuários a partir de CSV ou NDJSON, em streaming.
+ *
+ * A entrada é lida linha a linha e processada em lotes. Para cada lote:
+ * - as linhas são validadas e os emails repetidos dentro do lote descartados;
+ * - os emails já cadastrados são buscados em uma única consulta (in);
+ * - as senhas são transformadas em hash em paralelo
+ *   ({@link PasswordHashingService#encodeAll(List)});
+ * - os usuários novos são inseridos com um batch JDBC, em uma transação.
+ *
+ * O relatório é escrito em NDJSON durante a importação: uma linha por linha
+ * de entrada ({@link ImportResultDTO}) e, no final, um {@link ImportSummaryDTO}.
+ * O uso de memória depende só do tamanho do lote. Linhas além de
+ * app.import.max-rows não são lidas: o relatório indica o limite (status
+ * LIMITE) antes do resumo.
+ *
+ * Formato CSV: cabeçalho obrigatório com as colunas email, password,
+ * displayName e (opcional) role, em qualquer ordem. Um BOM UTF-8 no início
+ * da entrada é ignorado.
+ *
+ * Configuração:
+ * - app.import.chunk-size: linhas por lote (padrão 500)
+ * - app.import.max-rows: linhas por importação (padrão 100000)
+ *
+ * @author Luis
+ */
+@Service
+public class UserImportService {
+
+    private static final String INSERT_SQL =
+        "insert into users (email, password_hash, display_name, role) values (?, ?, ?, ?)";
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    /** Linha de entrada já validada, pronta para inserir */
+    private record Pending(long line, String email, String password, String displayName, Role role) {}
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashing;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final JsonMapper jsonMapper;
+    private final int chunkSize;
+    private final long maxRows;
+
+    public UserImportService(UserRepository userRepository, PasswordHashingService passwordHashing,
+                             JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             JsonMapper jsonMapper,
+                             @Value("${app.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.import.max-rows:100000}") long maxRows) {
+        this.userRepository = userRepository;
+        this.passwordHashing = passwordHashing;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Importa os usuários da entrada e escreve o relatório na saída.
+     *
+     * @param in   entrada em CSV ou NDJSON (UTF-8)
+     * @param csv  true para CSV, false para NDJSON
+     * @param out  saída do relatório em NDJSON
+     * @throws IOException se ocorrer erro de leitura ou escrita
+     */
+    public void importar(InputStream in, boolean csv, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        skipBom(reader);
+        BufferedOutputStream report = new BufferedOutputStream(out, 64 * 1024);
+        long[] counts = new long[5]; // total, criados, duplicados, inválidos, erros
+
+        int[] columns = null;
+        if (csv) {
+            columns = header(reader.readLine());
+            if (columns == null) {
+                write(report, new ImportResultDTO(0, null, "INVALIDO",
+                        "O cabeçalho do CSV precisa das colunas email e password"));
+                write(report, new ImportSummaryDTO(0, 0, 0, 0, 0, System.currentTimeMillis() - start));
+                report.flush();
+                return;
+            }
+        }
+        List<ImportResultDTO> invalid = new ArrayList<>();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (lineNumber >= maxRows) {
+                flushChunk(chunk, invalid, report, counts);
+                write(report, new ImportResultDTO(lineNumber + 1, null, "LIMITE",
+                        "Limite de " + maxRows + " linhas por importação atingido; o restante não foi importado"));
+                break;
+            }
+            lineNumber++;
+            counts[0]++;
+            ImportUserDTO row = null;
+            try {
+                row = csv ? csvRow(line, columns) : jsonMapper.readValue(line, ImportUserDTO.class);
+            } catch (JacksonException | IllegalArgumentException e) {
+                // row continua null: linha mal formada
+            }
+            // NDJSON "null" é lido sem erro, mas também não é um usuário
+            String error = row != null ? validate(row) : null;
+            if (row == null) {
+                invalid.add(new ImportResultDTO(lineNumber, null, "INVALIDO", "Linha mal formada"));
+            } else if (error != null) {
+                invalid.add(new ImportResultDTO(lineNumber, row.email(), "INVALIDO", error));
+            } else {
+                chunk.add(toPending(lineNumber, row));
+            }
+            if (chunk.size() + invalid.size() >= chunkSize) {
+                flushChunk(chunk, invalid, report, counts);
+            }
+        }
+        flushChunk(chunk, invalid, report, counts);
+
+        write(report, new ImportSummaryDTO(counts[0], counts[1], counts[2], counts[3], counts[4],
+                System.currentTimeMillis() - start));
+        report.flush();
+    }
+
+    /** Descarta o BOM UTF-8 (U+FEFF) do início da entrada, se houver. */
+    private static void skipBom(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    /** Processa o lote atual, escreve o relatório dele e limpa as listas. */
+    private void flushChunk(List<Pending> chunk, List<ImportResultDTO> invalid,
+                            OutputStream report, long[] counts) throws IOException {
+        for (ImportResultDTO r : invalid) {
+            counts[3]++;
+            write(report, r);
+        }
+        invalid.clear();
+        if (chunk.isEmpty()) {
+            report.flush();
+            return;
+        }
+
+        List<ImportResultDTO> results = new ArrayList<>(chunk.size());
+        Set<String> existing = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(chunk.stream().map(Pending::email).toList())) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        List<Pending> toInsert = new ArrayList<>(chunk.size());
+        for (Pending p : chunk) {
+            // add() falso: email já cadastrado ou repetido dentro do lote
+            if (!existing.add(p.email().toLowerCase(Locale.ROOT))) {
+                results.add(new ImportResultDTO(p.line(), p.email(), "DUPLICADO", "Email já cadastrado"));
+            } else {
+                toInsert.add(p);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            List<String> hashes = passwordHashing.encodeAll(toInsert.stream().map(Pending::password).toList());
+            results.addAll(insert(toInsert, hashes));
+        }
+
+        results.sort((a, b) -> Long.compare(a.line(), b.line()));
+        for (ImportResultDTO r : results) {
+            switch (r.status()) {
+                case "CRIADO" -> counts[1]++;
+                case "DUPLICADO" -> counts[2]++;
+                default -> counts[4]++;
+            }
+            write(report, r);
+        }
+        report.flush();
+        chunk.clear();
+    }
+
+    /**
+     * Insere o lote com um batch JDBC. Se um email for cadastrado por outra
+     * requisição no meio do caminho, o lote inteiro volta e as linhas são
+     * inseridas uma a uma, para informar o resultado de cada uma.
+     */
+    private List<ImportResultDTO> insert(List<Pending> rows, List<String> hashes) {
+        List<ImportResultDTO> results = new ArrayList<>(rows.size());
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, indexes(rows.size()),
+                    rows.size(), (ps, i) -> {
+                        Pending p = rows.get(i);
+                        ps.setString(1, p.email());
+                        ps.setString(2, hashes.get(i));
+                        ps.setString(3, p.displayName());
+                        ps.setString(4, p.role().name());
+                    }));
+            for (Pending p : rows) {
+                results.add(new ImportResultDTO(p.line(), p.email(), "CRIADO", null));
+            }
+            return results;
+        } catch (DataAccessException e) {
+            // cai para inserção linha a linha
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Pending p = rows.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, p.email(), hashes.get(i), p.displayName(), p.role().name());
+                results.add(new ImportResultDTO(p.line(), p.email(), "CRIADO", null));
+            } catch (DuplicateKeyException e) {
+                results.add(new ImportResultDTO(p.line(), p.email(), "DUPLICADO", "Email já cadastrado"));
+            } catch (DataAccessException e) {
+                results.add(new ImportResultDTO(p.line(), p.email(), "ERRO", e.getMostSpecificCause().getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static List<Integer> indexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    private static String validate(ImportUserDTO row) {
+        if (row.email() == null || row.email().isBlank() || !row.email().contains("@")) {
+            return "Email inválido";
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "Senha obrigatória";
+        }
+        if (row.role() != null && !row.role().isBlank()) {
+            try {
+                Role.valueOf(row.role().strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "Role inválida: " + row.role();
+            }
+        }
+        return null;
+    }
+
+    private static Pending toPending(long line, ImportUserDTO row) {
+        String email = row.email().strip();
+        String displayName = row.displayName() != null && !row.displayName().isBlank()
+                ? row.displayName().strip()
+                : email.substring(0, email.indexOf('@'));
+        Role role = row.role() != null && !row.role().isBlank()
+                ? Role.valueOf(row.role().strip().toUpperCase(Locale.ROOT))
+                : Role.USER;
+        return new Pending(line, email, row.password(), displayName, role);
+    }
+
+    /**
+     * Lê o cabeçalho do CSV e devolve a posição das colunas
+     * email, password, displayName e role (-1 se ausente); null se faltar
+     * email ou password.
+     */
+    private static int[] header(String line) {
+        if (line == null) {
+            return null;
+        }
+        int[] columns = {-1, -1, -1, -1};
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).strip().toLowerCase(Locale.ROOT)) {
+                case "email" -> columns[0] = i;
+                case "password" -> columns[1] = i;
+                case "displayname", "display_name" -> columns[2] = i;
+                case "role" -> columns[3] = i;
+                default -> { }
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0) {
+            return null;
+        }
+        return columns;
+    }
+
+    private static ImportUserDTO csvRow(String line, int[] columns) {
+        List<String> values = splitCsv(line);
+        return new ImportUserDTO(
+            column(values, columns[0]),
+            column(values, columns[1]),
+            column(values, columns[2]),
+            column(values, columns[3])
+        );
+    }
+
+    private static String column(List<String> values, int index) {
+        return index >= 0 && index < values.size() ? values.get(index) : null;
+    }
+
+    /** Separa uma linha CSV (RFC 4180, sem quebras de linha dentro dos campos). */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private void write(OutputStream out, Object value) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(value));
+        out.write(NEWLINE);
+    }
+}
@@ -0,0 +1,81 @@
+package com.blog.eu.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.cache.TtlCache;
+import com.blog.eu.dto.CacheStatsDTO;
+import com.blog.eu.model.User;
+
+/**
+ * Cache dos usuários autenticados, usado pelo
+ * {@link com.blog.eu.model.JwtAuthenticationFilter} para montar o principal
+ * da requisição sem consultar a tabela users a cada requisição.
+ *
+ * Os usuários ficam em cache como entidades desanexadas (já com as associações
+ * carregadas). Toda alteração de usuário, role, perfil ou pedido deve chamar
+ * {@link #invalidate(Long)}; o TTL cobre alterações feitas por outras instâncias.
+ * A role usada na autorização vem do usuário em cache (não do token), então
+ * uma mudança de role vale na próxima requisição desta instância.
+ *
+ * Dentro de uma transação a invalidação é repetida depois do commit: uma
+ * requisição concorrente que recarregue o usuário antes do commit leria a
+ * linha antiga e a deixaria em cache por todo o TTL.
+ *
+ * Configuração:
+ * - app.cache.users.max-size: quantidade máxima de usuários em cache (padrão 10000)
+ * - app.cache.users.ttl-seconds: tempo de vida de cada entrada (padrão 60)
+ *
+ * @author Luis
+ * @see TtlCache
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final TtlCache<Long, User> cache;
+    private final UserRepository userRepository;
+
+    public UserPrincipalCache(UserRepository userRepository,
+            @Value("${app.cache.users.max-size:10000}") int maxSize,
+            @Value("${app.cache.users.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = new TtlCache<>(maxSize, ttlSeconds);
+    }
+
+    /**
+     * Obtém o usuário do cache ou o carrega do banco.
+     *
+     * @param userId id do usuário
+     * @return usuário, ou null se não existir
+     */
+    public User get(Long userId) {
+        return cache.getOrLoad(userId, () -> userRepository.findById(userId).orElse(null));
+    }
+
+    /**
+     * Remove o usuário do cache após uma alteração; se houver uma transação
+     * ativa, remove de novo quando ela for confirmada.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /** @return estatísticas de uso do cache */
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.of(cache);
+    }
+}
@@ -0,0 +1,78 @@
+package com.blog.eu.admin.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullAndRejectsWithTimeUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(3, 3000, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(1000, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void refillsProportionallyToElapsedTime() {
+        TokenBucket bucket = new TokenBucket(3, 3000, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+        assertEquals(500, bucket.tryAcquire(500));
+        assertEquals(0, bucket.tryAcquire(1000));
+        assertEquals(1000, bucket.tryAcquire(1000));
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1000, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        long later = 1_000_000;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotRefillOrRewind() {
+        TokenBucket bucket = new TokenBucket(1, 1000, 5000);
+        assertEquals(0, bucket.tryAcquire(5000));
+        assertEquals(1000, bucket.tryAcquire(4000));
+        assertEquals(500, bucket.tryAcquire(5500));
+    }
+
+    @Test
+    void maxCapacityFitsInTheTokenBits() {
+        TokenBucket bucket = new TokenBucket(TokenBucket.MAX_CAPACITY, 1000, 0);
+        for (int i = 0; i < TokenBucket.MAX_CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(0), "ficha " + i);
+        }
+        assertEquals(1, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void timeAtTheTopOfThe40BitRangeKeepsTokensIntact() {
+        long top = (1L << 40) - 2000;
+        TokenBucket bucket = new TokenBucket(2, 1000, top);
+        assertEquals(0, bucket.tryAcquire(top));
+        assertEquals(0, bucket.tryAcquire(top));
+        assertEquals(500, bucket.tryAcquire(top));
+        assertEquals(0, bucket.tryAcquire(top + 500));
+        assertFalse(bucket.isIdle(top + 999));
+        assertTrue(bucket.isIdle(top + 1500));
+    }
+
+    @Test
+    void idleOnlyAfterAFullPeriod() {
+        TokenBucket bucket = new TokenBucket(5, 60_000, 0);
+        bucket.tryAcquire(10_000);
+        assertFalse(bucket.isIdle(69_999));
+        assertTrue(bucket.isIdle(70_000));
+    }
+}
@@ -0,0 +1,37 @@
+package com.blog.eu.admin.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.blog.eu.infos.RequestTracer;
+
+import jakarta.servlet.ServletException;
+
+class TraceFilterTest {
+
+    private final RequestTracer tracer = new RequestTracer(1.0, 8, 10);
+    private final TraceFilter filter = new TraceFilter(tracer);
+
+    @Test
+    void recordsResponseStatus() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/blog"), response,
+                (req, res) -> response.setStatus(404));
+
+        assertEquals(404, tracer.slowest(1).get(0).status());
+    }
+
+    @Test
+    void recordsServerErrorWhenTheChainThrows() {
+        assertThrows(ServletException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/blog"), new MockHttpServletResponse(),
+                (req, res) -> { throw new ServletException("falha"); }));
+
+        assertEquals(500, tracer.slowest(1).get(0).status());
+    }
+}
@@ -0,0 +1,90 @@
+package com.blog.eu.infos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void linearRangeHasOneBucketPerValue() {
+        for (long v = 0; v < 64; v++) {
+            assertEquals(v, LatencyHistogram.index(v));
+            assertEquals(v, LatencyHistogram.highestValue((int) v));
+        }
+    }
+
+    @Test
+    void firstLogBucketsStartAt64() {
+        assertEquals(64, LatencyHistogram.index(64));
+        assertEquals(64, LatencyHistogram.index(65));
+        assertEquals(65, LatencyHistogram.index(66));
+        assertEquals(65, LatencyHistogram.highestValue(64));
+        assertEquals(95, LatencyHistogram.index(127));
+        assertEquals(96, LatencyHistogram.index(128));
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucketAtPowerOfTwoBoundaries() {
+        for (int exponent = 6; exponent <= 39; exponent++) {
+            long power = 1L << exponent;
+            for (long v : new long[] {power - 1, power, power + 1, power + power / 2}) {
+                if (v > LatencyHistogram.MAX_VALUE) {
+                    continue;
+                }
+                int index = LatencyHistogram.index(v);
+                assertTrue(LatencyHistogram.highestValue(index) >= v, "limite superior abaixo de " + v);
+                assertTrue(LatencyHistogram.highestValue(index - 1) < v, "bucket anterior cobre " + v);
+                assertTrue(LatencyHistogram.highestValue(index) - v <= v / 32, "erro relativo acima de 1/32 em " + v);
+            }
+        }
+    }
+
+    @Test
+    void maxValueIsTheUpperBoundOfTheLastBucket() {
+        int last = LatencyHistogram.index(LatencyHistogram.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestValue(last));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(1, histogram.percentile(0));
+        long p50 = histogram.percentile(50);
+        assertTrue(p50 >= 500 && p50 <= 500 + 500 / 32, "p50 = " + p50);
+        long p99 = histogram.percentile(99);
+        assertTrue(p99 >= 990 && p99 <= 990 + 990 / 32, "p99 = " + p99);
+        assertEquals(1000, histogram.percentile(100));
+    }
+
+    @Test
+    void percentileNeverExceedsTheRecordedMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        assertEquals(1000, histogram.percentile(50));
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_VALUE * 2);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.percentile(100));
+        assertEquals(LatencyHistogram.MAX_VALUE * 2, histogram.getMax());
+    }
+}
@@ -0,0 +1,51 @@
+package com.blog.eu.infos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.blog.eu.dto.TraceDTO;
+import com.blog.eu.dto.TraceSpanDTO;
+
+class RequestTraceTest {
+
+    @AfterEach
+    void end() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void spansAreListedInStartOrder() throws InterruptedException {
+        RequestTrace trace = RequestTrace.begin("t", 10);
+        try (RequestTrace.Span controller = RequestTrace.span("controller", "BlogController.getPost")) {
+            long start = System.nanoTime();
+            Thread.sleep(5);
+            try (RequestTrace.Span mail = RequestTrace.span("mail", "EmailService.enviarHtml")) {
+                Thread.sleep(1);
+            }
+            // consulta que começou antes do envio, registrada só ao terminar
+            RequestTrace.completed("repository", "PostRepository.findById", System.nanoTime() - start);
+        }
+
+        TraceDTO dto = trace.toDTO("GET /api/blog/{postId}", 200);
+
+        assertEquals(List.of("BlogController.getPost", "PostRepository.findById", "EmailService.enviarHtml"),
+                dto.spans().stream().map(TraceSpanDTO::name).toList());
+    }
+
+    @Test
+    void spansAboveTheLimitAreCountedAsDropped() {
+        RequestTrace trace = RequestTrace.begin("t", 2);
+        for (int i = 0; i < 5; i++) {
+            RequestTrace.completed("repository", "q" + i, 0);
+        }
+
+        TraceDTO dto = trace.toDTO("GET /", 200);
+
+        assertEquals(2, dto.spans().size());
+        assertEquals(3, dto.droppedSpans());
+    }
+}
@@ -0,0 +1,84 @@
+package com.blog.eu.infos;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RollingCounterTest {
+
+    @Test
+    void sumsRequestsAndErrorsInsideTheWindow() {
+        RollingCounter counter = new RollingCounter();
+        counter.record(10, false);
+        counter.record(10, true);
+        counter.record(12, false);
+        assertArrayEquals(new long[] {3, 1}, counter.sum(12, 3));
+        assertArrayEquals(new long[] {1, 0}, counter.sum(12, 2));
+        assertArrayEquals(new long[] {0, 0}, counter.sum(20, 5));
+    }
+
+    @Test
+    void slotReusedAfterAnHourStartsFromZero() {
+        RollingCounter counter = new RollingCounter();
+        counter.record(5, true);
+        counter.record(5, false);
+        long nextHour = 5 + RollingCounter.SECONDS;
+        counter.record(nextHour, false);
+        assertArrayEquals(new long[] {1, 0}, counter.sum(nextHour, 1));
+    }
+
+    @Test
+    void staleSlotsAreIgnoredWhenReading() {
+        RollingCounter counter = new RollingCounter();
+        counter.record(100, true);
+        long later = 100 + RollingCounter.SECONDS;
+        // o slot de 100 é o mesmo de "later", mas pertence à hora anterior
+        assertArrayEquals(new long[] {0, 0}, counter.sum(later, 1));
+        assertArrayEquals(new long[] {1, 1}, counter.sum(later - 1, RollingCounter.SECONDS));
+    }
+
+    @Test
+    void fullHourWindowCoversEveryCompleteMinuteOnce() {
+        RollingCounter counter = new RollingCounter();
+        long start = 7 * RollingCounter.SECONDS;
+        for (long s = start; s < start + RollingCounter.SECONDS; s++) {
+            counter.record(s, s % 10 == 0);
+        }
+        long now = start + RollingCounter.SECONDS;
+        assertArrayEquals(new long[] {RollingCounter.SECONDS, RollingCounter.SECONDS / 10},
+                counter.sum(now, RollingCounter.SECONDS));
+        // o minuto em andamento só entra quando se completa
+        counter.record(now, false);
+        assertArrayEquals(new long[] {RollingCounter.SECONDS, RollingCounter.SECONDS / 10},
+                counter.sum(now, RollingCounter.SECONDS));
+        assertArrayEquals(new long[] {RollingCounter.SECONDS - 59, RollingCounter.SECONDS / 10 - 6},
+                counter.sum(now + 60, RollingCounter.SECONDS));
+    }
+
+    @Test
+    void longerWindowsUseCompleteMinutes() {
+        RollingCounter counter = new RollingCounter();
+        counter.record(119, true);  // minuto 1
+        counter.record(120, false); // minuto 2
+        counter.record(400, false); // minuto 6, em andamento
+        assertArrayEquals(new long[] {2, 1}, counter.sum(400, 300));
+        assertArrayEquals(new long[] {1, 0}, counter.sum(400, 240));
+        assertArrayEquals(new long[] {1, 0}, counter.sum(400, 60));
+    }
+
+    @Test
+    void minuteSlotReusedAfterAnHourStartsFromZero() {
+        RollingCounter counter = new RollingCounter();
+        counter.record(600, true);
+        counter.record(600 + 61 * 60, false);
+        assertArrayEquals(new long[] {1, 0}, counter.sum(600 + 62 * 60, 120));
+        assertArrayEquals(new long[] {1, 0}, counter.sum(600 + 62 * 60, RollingCounter.SECONDS));
+    }
+
+    @Test
+    void windowBeforeTheOriginIsSkipped() {
+        RollingCounter counter = new RollingCounter();
+        counter.record(1, false);
+        assertArrayEquals(new long[] {1, 0}, counter.sum(1, 60));
+    }
+}
@@ -0,0 +1,100 @@
+package com.blog.eu.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Base64;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.repo.RevokedTokenRepository;
+import com.blog.eu.service.JwtService;
+import com.blog.eu.service.TokenRevocationService;
+import com.blog.eu.service.UserPrincipalCache;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService =
+            new JwtService(Base64.getEncoder().encodeToString(new byte[32]), 3600);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserPrincipalCache userCache = new UserPrincipalCache(userRepository, 100, 60);
+    private final TokenRevocationService revocationService =
+            new TokenRevocationService(mock(RevokedTokenRepository.class), 1000);
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(jwtService, userCache, revocationService);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(Role.USER)));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authorityComesFromCachedUserNotFromToken() throws Exception {
+        String token = jwtService.generateToken(7L, Role.ADMIN.name());
+
+        assertEquals("ROLE_USER", authenticate(token));
+    }
+
+    @Test
+    void roleChangeAppliesAfterInvalidation() throws Exception {
+        String token = jwtService.generateToken(7L, Role.USER.name());
+        assertEquals("ROLE_USER", authenticate(token));
+
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(Role.ADMIN)));
+        assertEquals("ROLE_USER", authenticate(token), "usuário ainda em cache");
+
+        userCache.invalidate(7L);
+        assertEquals("ROLE_ADMIN", authenticate(token));
+    }
+
+    @Test
+    void revokedTokenIsNotAuthenticated() throws Exception {
+        String token = jwtService.generateToken(7L, Role.USER.name());
+        revocationService.revoke(jwtService.verify(token));
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void invalidTokenIsNotAuthenticated() throws Exception {
+        assertNull(authenticate("abc.def.ghi"));
+    }
+
+    private static User user(Role role) {
+        User u = new User();
+        u.setId(7L);
+        u.setRole(role);
+        return u;
+    }
+
+    /** @return authority do usuário autenticado pelo filtro, ou null */
+    private String authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return null;
+        }
+        assertEquals(7L, ((TokenClaims) auth.getDetails()).userId());
+        return auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElse(null);
+    }
+}
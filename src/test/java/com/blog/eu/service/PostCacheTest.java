@@ -0,0 +1,67 @@
+package com.blog.eu.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.blog.eu.dto.PostDTO;
+
+class PostCacheTest {
+
+    private final PostCache cache = new PostCache(10, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void sameVersionIsServedFromCache() {
+        PostDTO first = cache.getOrLoad(1L, 3, () -> post("a"));
+        PostDTO second = cache.getOrLoad(1L, 3, () -> post("b"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void newVersionReplacesEntry() {
+        cache.getOrLoad(1L, 3, () -> post("a"));
+
+        assertEquals("b", cache.getOrLoad(1L, 4, () -> post("b")).title());
+        assertEquals("b", cache.getOrLoad(1L, 4, () -> post("c")).title());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void postLoadedWhileInvalidatedIsNotStored() {
+        // comentário gravado (e post invalidado) enquanto o post era montado
+        PostDTO loaded = cache.getOrLoad(1L, 3, () -> {
+            PostDTO old = post("antigo");
+            cache.invalidate(1L);
+            return old;
+        });
+        assertEquals("antigo", loaded.title());
+
+        assertEquals("novo", cache.getOrLoad(1L, 3, () -> post("novo")).title());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void staleReloadIsNotStoredEither() {
+        cache.getOrLoad(1L, 3, () -> post("a"));
+
+        cache.getOrLoad(1L, 4, () -> {
+            PostDTO old = post("b");
+            cache.invalidate(1L);
+            return old;
+        });
+
+        assertEquals("c", cache.getOrLoad(1L, 4, () -> post("c")).title());
+    }
+
+    private PostDTO post(String title) {
+        loads.incrementAndGet();
+        return new PostDTO(1L, title, "", null, null, 0, List.of());
+    }
+}
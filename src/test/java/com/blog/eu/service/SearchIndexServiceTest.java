@@ -0,0 +1,116 @@
+package com.blog.eu.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blog.eu.dto.ComentarioFlatDTO;
+import com.blog.eu.dto.PostTextDTO;
+import com.blog.eu.dto.SearchResultsDTO;
+import com.blog.eu.repo.ComentarioRepository;
+import com.blog.eu.repo.PostRepository;
+
+class SearchIndexServiceTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final ComentarioRepository comentarioRepository = mock(ComentarioRepository.class);
+    private final SearchIndexService index =
+            new SearchIndexService(postRepository, comentarioRepository, false, 40);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findsIndexedPostsAndComments() {
+        index.indexPost(1L, "Cache de posts", "sobre invalidação");
+        index.indexComment(5L, 1L, "ótimo texto sobre cache");
+
+        SearchResultsDTO results = index.search("cache", 0, 10);
+
+        assertEquals(2, results.total());
+        assertEquals("POST", results.hits().get(0).tipo());
+        assertEquals("Cache de posts", results.hits().get(1).title());
+    }
+
+    @Test
+    void writesInsideTransactionAreAppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.indexPost(1L, "rascunho", "");
+        index.indexComment(5L, 1L, "rascunho");
+
+        assertEquals(0, index.search("rascunho", 0, 10).total());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(2, index.search("rascunho", 0, 10).total());
+    }
+
+    @Test
+    void rolledBackWritesAreNeverApplied() {
+        index.indexComment(5L, 1L, "mantido");
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.removeComments(1L, List.of(5L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(1, index.search("mantido", 0, 10).total());
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteWritesMadeWhileItRuns() {
+        when(postRepository.findTextsAfter(eq(0L), any())).thenAnswer(inv -> {
+            // post editado e post excluído depois de a reconstrução ler as linhas antigas
+            index.indexPost(1L, "titulo novo", "");
+            index.removePost(2L);
+            return List.of(new PostTextDTO(1L, "titulo antigo", ""), new PostTextDTO(2L, "excluido", ""));
+        });
+        when(postRepository.findTextsAfter(eq(2L), any())).thenReturn(List.of());
+        when(comentarioRepository.findFlatByPostIds(anyCollection())).thenReturn(List.of(
+                new ComentarioFlatDTO(9L, 2L, null, "orfao", null, false, 0, 1L, "Ana", null)));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(1, index.search("novo", 0, 10).total());
+        assertEquals(0, index.search("antigo", 0, 10).total());
+        assertEquals(0, index.search("excluido", 0, 10).total());
+        assertEquals(0, index.search("orfao", 0, 10).total());
+    }
+
+    @Test
+    void pagePastTheEndIsEmpty() {
+        index.indexPost(1L, "termo", "");
+
+        SearchResultsDTO results = index.search("termo", Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        assertEquals(1, results.total());
+        assertTrue(results.hits().isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTheStartOfTheTextForSnippets() {
+        index.indexPost(1L, "longo", "inicio " + "x".repeat(1000) + " final");
+
+        String snippet = index.search("final", 0, 10).hits().get(0).snippet();
+
+        assertTrue(snippet.startsWith("inicio"));
+        assertFalse(snippet.contains("final"));
+        assertTrue(snippet.length() <= 41);
+    }
+}
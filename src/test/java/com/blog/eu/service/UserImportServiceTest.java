@@ -0,0 +1,92 @@
+package com.blog.eu.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.eu.auth.repository.UserRepository;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class UserImportServiceTest {
+
+    @Test
+    void leadingBomIsIgnoredInCsvHeader() throws IOException {
+        List<String> report = importar("\uFEFFemail,password\nsem-arroba,x\n", true, 100);
+
+        assertEquals(2, report.size());
+        assertEquals("{\"line\":1,\"email\":\"sem-arroba\",\"status\":\"INVALIDO\",\"message\":\"Email inválido\"}",
+                report.get(0));
+    }
+
+    @Test
+    void leadingBomIsIgnoredInNdjson() throws IOException {
+        List<String> report = importar("\uFEFF{\"email\":\"sem-arroba\",\"password\":\"x\"}\n", false, 100);
+
+        assertEquals("{\"line\":1,\"email\":\"sem-arroba\",\"status\":\"INVALIDO\",\"message\":\"Email inválido\"}",
+                report.get(0));
+    }
+
+    @Test
+    void rowsAboveTheLimitAreNotRead() throws IOException {
+        List<String> report = importar("null\nnull\nnull\nnull\n", false, 2);
+
+        assertEquals(4, report.size());
+        assertEquals("{\"line\":3,\"email\":null,\"status\":\"LIMITE\","
+                + "\"message\":\"Limite de 2 linhas por importação atingido; o restante não foi importado\"}", report.get(2));
+        assertEquals("{\"total\":2,\"created\":0,\"duplicates\":0,\"invalid\":2,\"errors\":0,",
+                report.get(3).substring(0, report.get(3).indexOf("\"elapsedMs\"")));
+    }
+
+    /** Importa só linhas inválidas (sem acesso ao banco) e devolve o relatório, uma linha por item. */
+    private static List<String> importar(String input, boolean csv, long maxRows) throws IOException {
+        UserImportService service = new UserImportService(mock(UserRepository.class),
+                mock(PasswordHashingService.class), mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class), JsonMapper.builder().build(), 500, maxRows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.importar(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), csv, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void splitsPlainValues() {
+        assertEquals(List.of("a@x.com", "secret", "Ana"), UserImportService.splitCsv("a@x.com,secret,Ana"));
+    }
+
+    @Test
+    void keepsEmptyValues() {
+        assertEquals(List.of("", "b", ""), UserImportService.splitCsv(",b,"));
+        assertEquals(List.of(""), UserImportService.splitCsv(""));
+    }
+
+    @Test
+    void quotedValuesMayContainCommas() {
+        assertEquals(List.of("a@x.com", "Silva, Ana"), UserImportService.splitCsv("a@x.com,\"Silva, Ana\""));
+    }
+
+    @Test
+    void doubledQuotesAreEscapedQuotes() {
+        assertEquals(List.of("diz \"oi\"", "x"), UserImportService.splitCsv("\"diz \"\"oi\"\"\",x"));
+        assertEquals(List.of("\""), UserImportService.splitCsv("\"\"\"\""));
+    }
+
+    @Test
+    void emptyQuotedValue() {
+        assertEquals(List.of("", "b"), UserImportService.splitCsv("\"\",b"));
+    }
+
+    @Test
+    void unclosedQuoteIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> UserImportService.splitCsv("a,\"b"));
+    }
+}
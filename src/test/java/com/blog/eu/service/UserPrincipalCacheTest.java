@@ -0,0 +1,65 @@
+package com.blog.eu.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blog.eu.auth.repository.UserRepository;
+import com.blog.eu.model.Role;
+import com.blog.eu.model.User;
+
+class UserPrincipalCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserPrincipalCache cache = new UserPrincipalCache(userRepository, 100, 60);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reloadBeforeCommitIsDiscardedAfterCommit() {
+        User before = user(Role.USER);
+        User after = user(Role.ADMIN);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(before));
+        assertEquals(Role.USER, cache.get(7L).getRole());
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(7L);
+        // requisição concorrente recarrega a linha antiga antes do commit
+        assertEquals(Role.USER, cache.get(7L).getRole());
+
+        when(userRepository.findById(7L)).thenReturn(Optional.of(after));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Role.ADMIN, cache.get(7L).getRole());
+    }
+
+    @Test
+    void invalidateWithoutTransactionRemovesImmediately() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(Role.USER)));
+        cache.get(7L);
+
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(Role.MODERATOR)));
+        cache.invalidate(7L);
+
+        assertEquals(Role.MODERATOR, cache.get(7L).getRole());
+    }
+
+    private static User user(Role role) {
+        User u = new User();
+        u.setId(7L);
+        u.setRole(role);
+        return u;
+    }
+}